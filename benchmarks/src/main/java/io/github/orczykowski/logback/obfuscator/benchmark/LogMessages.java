@@ -0,0 +1,70 @@
+package io.github.orczykowski.logback.obfuscator.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+final class LogMessages {
+    private static final List<String> KNOWN_FIELD_NAMES = List.of("email", "firstName", "lastName", "mobilePhone",
+            "idCardNumber", "pesel", "iban", "cardNumber", "password", "street", "birthDate", "accessToken");
+    private static final String[] WORDS = {"request", "processed", "order", "user", "payment", "status", "accepted",
+            "session", "retry", "timeout", "response", "id", "42", "service", "call", "took", "ms", "result"};
+    private static final String[] SENSITIVE_VALUES = {"test@github.io", "Gustaw", "+48123123123", "CC123456",
+            "PL61109010140000071219812874", "4111111111111111", "S3cr3t!"};
+    private static final String ALL_PATTERNS = "ALL";
+    private static final long SEED = 20230613L;
+
+    private LogMessages() {
+    }
+
+    static List<String> fieldNames(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> i < KNOWN_FIELD_NAMES.size() ? KNOWN_FIELD_NAMES.get(i) : "sensitiveField" + i)
+                .toList();
+    }
+
+    static List<String> patternNames(final String patternNames) {
+        if (ALL_PATTERNS.equals(patternNames)) {
+            return List.of("JSON", "EQUAL_AND_SQUARE_BRACKETS", "EQUAL_AND_BRACKETS", "EQUAL_AND_DOUBLE_QUOTES");
+        }
+        return Arrays.asList(patternNames.split("\\+"));
+    }
+
+    static String[] generate(final int count, final int messageSize, final List<String> fieldNames,
+                             final List<String> patternNames, final double hitRatio) {
+        final var random = new Random(SEED);
+        final var messages = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            final var message = new StringBuilder(messageSize + 64);
+            if (random.nextDouble() < hitRatio) {
+                appendWords(message, random, random.nextInt(messageSize));
+                appendSensitiveValue(message, random, fieldNames, patternNames);
+            }
+            appendWords(message, random, messageSize);
+            messages.add(message.toString());
+        }
+        return messages.toArray(String[]::new);
+    }
+
+    private static void appendWords(final StringBuilder message, final Random random, final int length) {
+        while (message.length() < length) {
+            message.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+    }
+
+    private static void appendSensitiveValue(final StringBuilder message, final Random random,
+                                             final List<String> fieldNames, final List<String> patternNames) {
+        final var fieldName = fieldNames.get(random.nextInt(fieldNames.size()));
+        final var value = SENSITIVE_VALUES[random.nextInt(SENSITIVE_VALUES.length)];
+        final var format = switch (patternNames.get(random.nextInt(patternNames.size()))) {
+            case "JSON" -> "{\"%s\":\"%s\"}";
+            case "EQUAL_AND_SQUARE_BRACKETS" -> "%s=[%s]";
+            case "EQUAL_AND_BRACKETS" -> "%s=(%s)";
+            case "EQUAL_AND_DOUBLE_QUOTES" -> "%s=\"%s\"";
+            default -> throw new IllegalArgumentException("Unknown pattern name");
+        };
+        message.append(format.formatted(fieldName, value)).append(' ');
+    }
+}
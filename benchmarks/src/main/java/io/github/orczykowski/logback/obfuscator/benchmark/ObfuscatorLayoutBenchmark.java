@@ -0,0 +1,122 @@
+package io.github.orczykowski.logback.obfuscator.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.github.orczykowski.logback.obfuscator.AbstractSensitiveDataObfuscatorLayout;
+import io.github.orczykowski.logback.obfuscator.MaskSensitiveDataAsShortcutLayout;
+import io.github.orczykowski.logback.obfuscator.MaskSensitiveDataEncoder;
+import io.github.orczykowski.logback.obfuscator.MaskSensitiveDataLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObfuscatorLayoutBenchmark {
+    private static final int MESSAGES_COUNT = 1024;
+    private static final String LOG_PATTERN = "%-5p %c: %m%n";
+    private static final List<String> VALUE_SHAPES = List.of("CARD_NUMBER", "IBAN", "PESEL", "PHONE", "EMAIL");
+
+    @Param({"128", "1024", "16384"})
+    int messageSize;
+
+    @Param({"1", "10", "60"})
+    int fieldNamesCount;
+
+    @Param({"JSON", "JSON+EQUAL_AND_SQUARE_BRACKETS", "ALL"})
+    String patternNames;
+
+    @Param({"0.0", "0.1", "1.0"})
+    double hitRatio;
+
+    private MaskSensitiveDataLayout maskLayout;
+    private MaskSensitiveDataLayout anchorScanningLayout;
+    private MaskSensitiveDataLayout valueShapesLayout;
+    private MaskSensitiveDataAsShortcutLayout shortcutLayout;
+    private MaskSensitiveDataEncoder maskEncoder;
+    private ILoggingEvent[] events;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final var context = new LoggerContext();
+        final var logger = context.getLogger(ObfuscatorLayoutBenchmark.class);
+        final var fieldNames = LogMessages.fieldNames(fieldNamesCount);
+        final var patterns = LogMessages.patternNames(patternNames);
+        maskLayout = configure(new MaskSensitiveDataLayout(), context, fieldNames, patterns);
+        anchorScanningLayout = new MaskSensitiveDataLayout();
+        anchorScanningLayout.setAnchorScanning(true);
+        anchorScanningLayout = configure(anchorScanningLayout, context, fieldNames, patterns);
+        valueShapesLayout = new MaskSensitiveDataLayout();
+        VALUE_SHAPES.forEach(valueShapesLayout::addValueShape);
+        valueShapesLayout = configure(valueShapesLayout, context, fieldNames, patterns);
+        shortcutLayout = configure(new MaskSensitiveDataAsShortcutLayout(), context, fieldNames, patterns);
+        maskEncoder = new MaskSensitiveDataEncoder();
+        maskEncoder.setContext(context);
+        maskEncoder.setCharset(StandardCharsets.UTF_8);
+        maskEncoder.setLayout(maskLayout);
+        maskEncoder.start();
+        events = Arrays.stream(LogMessages.generate(MESSAGES_COUNT, messageSize, fieldNames, patterns, hitRatio))
+                .map(message -> new LoggingEvent("FQCN", logger, Level.INFO, message, null, null))
+                .toArray(ILoggingEvent[]::new);
+    }
+
+    @Benchmark
+    public String maskSensitiveDataLayout() {
+        return maskLayout.doLayout(nextEvent());
+    }
+
+    @Benchmark
+    public String maskSensitiveDataLayoutWithAnchorScanning() {
+        return anchorScanningLayout.doLayout(nextEvent());
+    }
+
+    @Benchmark
+    public String maskSensitiveDataLayoutWithValueShapes() {
+        return valueShapesLayout.doLayout(nextEvent());
+    }
+
+    @Benchmark
+    public String maskSensitiveDataAsShortcutLayout() {
+        return shortcutLayout.doLayout(nextEvent());
+    }
+
+    @Benchmark
+    public byte[] maskSensitiveDataEncoder() {
+        return maskEncoder.encode(nextEvent());
+    }
+
+    private ILoggingEvent nextEvent() {
+        next = (next + 1) % events.length;
+        return events[next];
+    }
+
+    static <T extends AbstractSensitiveDataObfuscatorLayout> T configure(final T layout, final LoggerContext context,
+                                                                      final List<String> fieldNames, final List<String> patternNames) {
+        layout.setContext(context);
+        layout.setPattern(LOG_PATTERN);
+        patternNames.forEach(layout::addPatternName);
+        fieldNames.forEach(layout::addFieldName);
+        layout.start();
+        return layout;
+    }
+}
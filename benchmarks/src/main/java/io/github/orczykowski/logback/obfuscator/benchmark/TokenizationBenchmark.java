@@ -0,0 +1,84 @@
+package io.github.orczykowski.logback.obfuscator.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.github.orczykowski.logback.obfuscator.MaskSensitiveDataAsShortcutLayout;
+import io.github.orczykowski.logback.obfuscator.MaskSensitiveDataAsTokenLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizationBenchmark {
+    private static final int MESSAGES_COUNT = 1024;
+    private static final int VALUES_PER_MESSAGE = 16;
+    private static final List<String> FIELD_NAMES = List.of("email");
+    private static final List<String> PATTERN_NAMES = List.of("EQUAL_AND_SQUARE_BRACKETS");
+
+    @Param({"16", "1000000"})
+    int distinctValues;
+
+    @Param({"0", "256"})
+    int tokenCacheSize;
+
+    private MaskSensitiveDataAsTokenLayout tokenLayout;
+    private MaskSensitiveDataAsShortcutLayout shortcutLayout;
+    private ILoggingEvent[] events;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final var context = new LoggerContext();
+        final var logger = context.getLogger(TokenizationBenchmark.class);
+        tokenLayout = new MaskSensitiveDataAsTokenLayout();
+        tokenLayout.setKey("benchmark-key");
+        tokenLayout.setTokenCacheSize(tokenCacheSize);
+        tokenLayout = ObfuscatorLayoutBenchmark.configure(tokenLayout, context, FIELD_NAMES, PATTERN_NAMES);
+        shortcutLayout = ObfuscatorLayoutBenchmark.configure(new MaskSensitiveDataAsShortcutLayout(), context, FIELD_NAMES, PATTERN_NAMES);
+        events = new ILoggingEvent[MESSAGES_COUNT];
+        var value = 0;
+        for (int i = 0; i < MESSAGES_COUNT; i++) {
+            final var message = new StringBuilder();
+            for (int j = 0; j < VALUES_PER_MESSAGE; j++) {
+                message.append("email=[user").append(value++ % distinctValues).append("@example.com] ");
+            }
+            events[i] = new LoggingEvent("FQCN", logger, Level.INFO, message.toString(), null, null);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_PER_MESSAGE)
+    public String maskSensitiveDataAsTokenLayout() {
+        return tokenLayout.doLayout(nextEvent());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_PER_MESSAGE)
+    public String maskSensitiveDataAsShortcutLayout() {
+        return shortcutLayout.doLayout(nextEvent());
+    }
+
+    private ILoggingEvent nextEvent() {
+        next = (next + 1) % events.length;
+        return events[next];
+    }
+}
@@ -1,69 +1,1095 @@
 package io.github.orczykowski.logback.obfuscator;
 
 import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.pattern.EnsureExceptionHandling;
+import ch.qos.logback.classic.pattern.KeyValuePairConverter;
+import ch.qos.logback.classic.pattern.MDCConverter;
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.pattern.NopThrowableInformationConverter;
+import ch.qos.logback.classic.pattern.ThrowableHandlingConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.CompositeConverter;
+import ch.qos.logback.core.pattern.Converter;
+import ch.qos.logback.core.pattern.ConverterUtil;
+import ch.qos.logback.core.pattern.PostCompileProcessor;
+import ch.qos.logback.core.util.Duration;
+import org.slf4j.event.KeyValuePair;
 
-import java.util.HashSet;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.regex.PatternSyntaxException;
 
 import static java.util.Objects.isNull;
 
 public abstract class AbstractSensitiveDataObfuscatorLayout extends PatternLayout {
     private static final SensitiveDataPatternFactory patternFactory = new SensitiveDataPatternFactory();
-    protected Set<String> patterns = new HashSet<>();
-    protected Set<Pattern> sensitiveFieldNamePatterns = new HashSet<>();
+    private static final int SENSITIVE_VALUE_GROUP = 2;
+    private static final int DEFAULT_MAX_CACHEABLE_LENGTH = 1024;
+    private static final int DEFAULT_TIMING_SAMPLE_RATE = 64;
+    private static final String TRUNCATION_MARKER = "[TRUNCATED]";
+    private static final String DEFAULT_VALUE_MASK = "********";
+    private static final int DEFAULT_CHUNK_OVERLAP = 256;
+    private static final Duration DEFAULT_RULES_SCAN_PERIOD = Duration.buildByMinutes(1);
+    protected Set<String> patterns = new LinkedHashSet<>();
+    protected Set<String> fieldNames = new LinkedHashSet<>();
+    private final Set<SensitiveValueShapes> valueShapes = EnumSet.noneOf(SensitiveValueShapes.class);
+    private final ThreadLocalStringBuilder renderBuffer = new ThreadLocalStringBuilder();
+    private final ThreadLocalStringBuilder jsonBuffer = new ThreadLocalStringBuilder();
+    private SensitiveDataPatternRegistry patternRegistry;
+    private volatile MaskingRules rules;
+    private MaskingMetrics metrics;
+    private boolean jsonMode;
+    private boolean structuredMasking;
+    private boolean maskJsonStructures;
+    private boolean linearTimeMatching;
+    private boolean anchorScanning;
+    private boolean normalizedFieldNames;
+    private int maxMatchStepsPerCharacter;
+    private BudgetExceededPolicy budgetExceededPolicy = BudgetExceededPolicy.MASK_LINE;
+    private int chunkSize;
+    private int chunkOverlap = DEFAULT_CHUNK_OVERLAP;
+    private int maxScanLength;
+    private OversizedMessagePolicy oversizedMessagePolicy = OversizedMessagePolicy.TRUNCATE;
+    private OverlapPolicy overlapPolicy = OverlapPolicy.OUTERMOST;
+    private int parallelMaskingThreshold;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private volatile ParallelMasking parallelMasking;
+    private int resultCacheSize;
+    private int maxCacheableLength = DEFAULT_MAX_CACHEABLE_LENGTH;
+    private int timingSampleRate = DEFAULT_TIMING_SAMPLE_RATE;
+    private String jmxObjectName;
+    private ObjectName registeredObjectName;
+    private String rulesFile;
+    private Duration rulesScanPeriod = DEFAULT_RULES_SCAN_PERIOD;
+    private String rulesJmxObjectName;
+    private MaskingRulesReloader rulesReloader;
+    private ScheduledFuture<?> rulesScan;
+    private ObjectName registeredRulesObjectName;
+    private PostCompileProcessor<ILoggingEvent> bindingPostCompileProcessor;
+    private Converter<ILoggingEvent> converters;
+    private boolean maskedByConverters;
+
+    protected AbstractSensitiveDataObfuscatorLayout() {
+        final var converterMap = getInstanceConverterMap();
+        converterMap.put("maskedMsg", MaskedMessageConverter.class.getName());
+        converterMap.put("maskedMessage", MaskedMessageConverter.class.getName());
+        converterMap.put("maskedX", MaskedMdcConverter.class.getName());
+        converterMap.put("maskedMdc", MaskedMdcConverter.class.getName());
+        converterMap.put("maskedKvp", MaskedKeyValuePairConverter.class.getName());
+        converterMap.put("maskedEx", MaskedThrowableProxyConverter.class.getName());
+        converterMap.put("maskedException", MaskedThrowableProxyConverter.class.getName());
+        converterMap.put("maskedThrowable", MaskedThrowableProxyConverter.class.getName());
+    }
+
+    @Override
+    public void start() {
+        compileAndReportMatchers();
+        if (isNull(postCompileProcessor) || postCompileProcessor != bindingPostCompileProcessor) {
+            final var postCompileProcessor = this.postCompileProcessor;
+            bindingPostCompileProcessor = (context, head) -> {
+                if (postCompileProcessor instanceof EnsureExceptionHandling ensureExceptionHandling
+                        && !ensureExceptionHandling.chainHandlesThrowable(head) && containsSensitiveDataConverter(head)) {
+                    ConverterUtil.findTail(head).setNext(new MaskedThrowableProxyConverter());
+                } else if (!isNull(postCompileProcessor)) {
+                    postCompileProcessor.process(context, head);
+                }
+                this.converters = head;
+                this.maskedByConverters = bindSensitiveDataConverters(head);
+            };
+            setPostCompileProcessor(bindingPostCompileProcessor);
+        }
+        super.start();
+        registerMetrics();
+        startRulesReloader();
+        startParallelMasking();
+    }
+
+    @Override
+    public void stop() {
+        stopParallelMasking();
+        stopRulesReloader();
+        unregisterMetrics();
+        super.stop();
+    }
 
     @Override
     public String doLayout(final ILoggingEvent event) {
-        return maskLogMessage(super.doLayout(event));
+        final var renderedMessage = super.doLayout(withMaskedStructuredData(event));
+        return maskedByConverters ? renderedMessage : maskLogMessage(renderedMessage);
+    }
+
+    public void doLayout(final ILoggingEvent event, final StringBuilder target) {
+        if (!isStarted()) {
+            return;
+        }
+        final var renderedMessage = maskedByConverters ? target : renderBuffer.acquire();
+        final var maskedEvent = withMaskedStructuredData(event);
+        for (var converter = converters; !isNull(converter); converter = converter.getNext()) {
+            converter.write(renderedMessage, maskedEvent);
+        }
+        if (!maskedByConverters) {
+            maskLogMessage(renderedMessage, target);
+        }
     }
 
     public void addFieldName(final String fieldName) {
-        if (patterns.isEmpty()) {
+        if (patterns.isEmpty() && isNull(patternRegistry) && !jsonMode) {
             throw new IncorrectConfigurationException("""
                     There is no pattern to detecting sensitive data added yet.
                     Make sure the list of field names with sensitive fields is added after the patterns.""");
         }
-        final var patterns = asPropertyNamePatterns(fieldName);
-        sensitiveFieldNamePatterns.addAll(patterns);
+        if (isBlank(fieldName)) {
+            throw new IncorrectConfigurationException("Field name cannot be blank");
+        }
+        if (!fieldNames.add(fieldName)) {
+            addWarn("Field name [%s] is configured more than once".formatted(fieldName));
+        }
+        rulesChanged();
+    }
+
+    public void setJsonMode(final boolean jsonMode) {
+        this.jsonMode = jsonMode;
+        rulesChanged();
+    }
+
+    public void setMaskJsonStructures(final boolean maskJsonStructures) {
+        this.maskJsonStructures = maskJsonStructures;
+        rulesChanged();
+    }
+
+    public void setStructuredMasking(final boolean structuredMasking) {
+        this.structuredMasking = structuredMasking;
+    }
+
+    public boolean isStructuredMasking() {
+        return structuredMasking;
+    }
+
+    public void setLinearTimeMatching(final boolean linearTimeMatching) {
+        this.linearTimeMatching = linearTimeMatching;
+        rulesChanged();
+    }
+
+    public void setAnchorScanning(final boolean anchorScanning) {
+        this.anchorScanning = anchorScanning;
+        rulesChanged();
+    }
+
+    public void setNormalizedFieldNames(final boolean normalizedFieldNames) {
+        this.normalizedFieldNames = normalizedFieldNames;
+        rulesChanged();
+    }
+
+    public boolean isAnchorScanningActive() {
+        final var sensitiveDataMatcher = rules().sensitiveDataMatcher();
+        return !isNull(sensitiveDataMatcher) && sensitiveDataMatcher.isAnchorScanning();
+    }
+
+    public void setMaxMatchStepsPerCharacter(final int maxMatchStepsPerCharacter) {
+        if (maxMatchStepsPerCharacter < 0) {
+            throw new IncorrectConfigurationException("Max match steps per character cannot be negative");
+        }
+        this.maxMatchStepsPerCharacter = maxMatchStepsPerCharacter;
+    }
+
+    public void setBudgetExceededPolicy(final BudgetExceededPolicy budgetExceededPolicy) {
+        this.budgetExceededPolicy = budgetExceededPolicy;
+    }
+
+    public void setChunkSize(final int chunkSize) {
+        if (chunkSize < 0) {
+            throw new IncorrectConfigurationException("Chunk size cannot be negative");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public void setChunkOverlap(final int chunkOverlap) {
+        if (chunkOverlap < 0) {
+            throw new IncorrectConfigurationException("Chunk overlap cannot be negative");
+        }
+        this.chunkOverlap = chunkOverlap;
+    }
+
+    public void setMaxScanLength(final int maxScanLength) {
+        if (maxScanLength < 0) {
+            throw new IncorrectConfigurationException("Max scan length cannot be negative");
+        }
+        this.maxScanLength = maxScanLength;
+    }
+
+    public void setOversizedMessagePolicy(final OversizedMessagePolicy oversizedMessagePolicy) {
+        this.oversizedMessagePolicy = oversizedMessagePolicy;
+    }
+
+    public void setOverlapPolicy(final OverlapPolicy overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+        rulesChanged();
+    }
+
+    public void setParallelMaskingThreshold(final int parallelMaskingThreshold) {
+        if (parallelMaskingThreshold < 0) {
+            throw new IncorrectConfigurationException("Parallel masking threshold cannot be negative");
+        }
+        this.parallelMaskingThreshold = parallelMaskingThreshold;
+    }
+
+    public void setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IncorrectConfigurationException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public boolean isLinearTimeMatchingActive() {
+        final var sensitiveDataMatcher = rules().sensitiveDataMatcher();
+        return !isNull(sensitiveDataMatcher) && sensitiveDataMatcher.isLinear();
+    }
+
+    public void setResultCacheSize(final int resultCacheSize) {
+        if (resultCacheSize < 0) {
+            throw new IncorrectConfigurationException("Result cache size cannot be negative");
+        }
+        this.resultCacheSize = resultCacheSize;
+        rulesChanged();
+    }
+
+    public void setMaxCacheableLength(final int maxCacheableLength) {
+        if (maxCacheableLength < 0) {
+            throw new IncorrectConfigurationException("Max cacheable length cannot be negative");
+        }
+        this.maxCacheableLength = maxCacheableLength;
+        rulesChanged();
+    }
+
+    public void setMetricsEnabled(final boolean metricsEnabled) {
+        this.metrics = metricsEnabled ? new MaskingMetrics(timingSampleRate) : null;
+        rulesChanged();
+    }
+
+    public void setTimingSampleRate(final int timingSampleRate) {
+        if (timingSampleRate < 1) {
+            throw new IncorrectConfigurationException("Timing sample rate must be positive");
+        }
+        this.timingSampleRate = timingSampleRate;
+        if (!isNull(metrics)) {
+            setMetricsEnabled(true);
+        }
+    }
+
+    public void setJmxObjectName(final String jmxObjectName) {
+        this.jmxObjectName = jmxObjectName;
+    }
+
+    public void setRulesFile(final String rulesFile) {
+        this.rulesFile = rulesFile;
+    }
+
+    public void setRulesScanPeriod(final Duration rulesScanPeriod) {
+        if (isNull(rulesScanPeriod) || rulesScanPeriod.getMilliseconds() <= 0) {
+            throw new IncorrectConfigurationException("Rules scan period must be positive");
+        }
+        this.rulesScanPeriod = rulesScanPeriod;
+    }
+
+    public void setRulesJmxObjectName(final String rulesJmxObjectName) {
+        this.rulesJmxObjectName = rulesJmxObjectName;
+    }
+
+    public MaskingMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getResultCacheHits() {
+        final var resultCache = rules().resultCache();
+        return isNull(resultCache) ? 0 : resultCache.hits();
+    }
+
+    public long getResultCacheMisses() {
+        final var resultCache = rules().resultCache();
+        return isNull(resultCache) ? 0 : resultCache.misses();
     }
 
 
     public void addPatternName(final String predefinedPatternName) {
+        addPattern(predefinedPattern(predefinedPatternName));
+    }
+
+    public void addCustomPattern(final String pattern) {
+        addPattern(customPattern(pattern));
+    }
+
+    private void addPattern(final String pattern) {
+        if (!patterns.add(pattern)) {
+            addWarn("Pattern [%s] is configured more than once".formatted(pattern));
+        }
+        rulesChanged();
+    }
+
+    public void addValueShape(final String valueShapeName) {
+        if (!SensitiveValueShapes.isValidName(valueShapeName)) {
+            throw new IncorrectConfigurationException("Unknown value shape. You can use the following value shapes [%s]"
+                    .formatted(String.join(",", SensitiveValueShapes.getValueShapesNames())));
+        }
+        if (!valueShapes.add(SensitiveValueShapes.valueOf(valueShapeName))) {
+            addWarn("Value shape [%s] is configured more than once".formatted(valueShapeName));
+        }
+        rulesChanged();
+    }
+
+    public void setPatternRegistry(final String registryName) {
+        this.patternRegistry = SensitiveDataPatternRegistry.lookup(getContext(), registryName);
+        rulesChanged();
+    }
+
+    static String predefinedPattern(final String predefinedPatternName) {
         if (validatePatternName(predefinedPatternName)) {
             final var sensitivePatternsNames = String.join(",", SensitiveDataPatternFactory.SensitiveValuePatterns.getSensitivePatternsNames());
             throw new IncorrectConfigurationException("Unknown name. You can use the following predefined pattern names [%s]"
                     .formatted(sensitivePatternsNames));
         }
-        final var pattern = SensitiveDataPatternFactory.SensitiveValuePatterns.valueOf(predefinedPatternName).getPatternTemplate();
-        this.patterns.add(pattern);
+        return SensitiveDataPatternFactory.SensitiveValuePatterns.valueOf(predefinedPatternName).getPatternTemplate();
     }
 
-    public void addCustomPattern(final String pattern) {
+    static String customPattern(final String pattern) {
         if (validatePattern(pattern)) {
             throw new IncorrectConfigurationException("""
                     Pattern have to be complies with java regexp and have to contains place holder
                     %s where in log is sensitive value. The sensitive value must be a group in the sense of regular 
                     expressions, it have to be  surrounded by parentheses""".formatted(SensitiveDataPatternFactory.PROPERTY_NAME_MARKER));
         }
-        this.patterns.add(pattern);
+        return pattern;
+    }
+
+    @Deprecated
+    protected Set<Pattern> getSensitiveFieldNamePatterns() {
+        final var sensitiveFieldNamePatterns = new LinkedHashSet<Pattern>();
+        for (final String fieldName : configuredFieldNames()) {
+            for (final String pattern : configuredPatterns()) {
+                sensitiveFieldNamePatterns.add(patternFactory.create(Pattern.quote(fieldName), pattern));
+            }
+        }
+        return Set.copyOf(sensitiveFieldNamePatterns);
     }
 
     protected abstract String maskLogMessage(final String str);
 
-    private Set<Pattern> asPropertyNamePatterns(final String propertyName) {
-        return patterns.stream()
-                .map(pattern -> patternFactory.create(propertyName, pattern))
-                .collect(Collectors.toUnmodifiableSet());
+    protected String maskSensitiveValue(final String value) {
+        return DEFAULT_VALUE_MASK;
+    }
+
+    protected String maskSensitiveValue(final String value, final SensitiveValueMasker masker) {
+        final var maskedValue = new StringBuilder(value.length());
+        masker.mask(maskedValue, value, 0, value.length());
+        return maskedValue.toString();
+    }
+
+    ILoggingEvent withMaskedStructuredData(final ILoggingEvent event) {
+        if (!structuredMasking) {
+            return event;
+        }
+        final var mdc = event.getMDCPropertyMap();
+        final var keyValuePairs = event.getKeyValuePairs();
+        final var maskedMdc = maskMdc(mdc);
+        final var maskedKeyValuePairs = maskKeyValuePairs(keyValuePairs);
+        if (maskedMdc == mdc && maskedKeyValuePairs == keyValuePairs) {
+            return event;
+        }
+        return new MaskedLoggingEvent(event, event.getFormattedMessage(), maskedMdc, maskedKeyValuePairs, event.getThrowableProxy());
+    }
+
+    Map<String, String> maskMdc(final Map<String, String> mdc) {
+        return maskMdc(mdc, false);
+    }
+
+    Map<String, String> maskMdc(final Map<String, String> mdc, final boolean scanOtherValues) {
+        if (isNull(mdc) || mdc.isEmpty()) {
+            return mdc;
+        }
+        final var literalFieldNames = rules().literalFieldNames();
+        Map<String, String> maskedMdc = null;
+        for (final Map.Entry<String, String> entry : mdc.entrySet()) {
+            final var value = entry.getValue();
+            if (isNull(value)) {
+                continue;
+            }
+            final String maskedValue;
+            if (literalFieldNames.contains(entry.getKey())) {
+                maskedValue = maskSensitiveValue(value);
+            } else if (scanOtherValues) {
+                maskedValue = maskLogMessage(value);
+                if (value.equals(maskedValue)) {
+                    continue;
+                }
+            } else {
+                continue;
+            }
+            if (isNull(maskedMdc)) {
+                maskedMdc = new LinkedHashMap<>(mdc);
+            }
+            maskedMdc.put(entry.getKey(), maskedValue);
+        }
+        return isNull(maskedMdc) ? mdc : maskedMdc;
+    }
+
+    List<KeyValuePair> maskKeyValuePairs(final List<KeyValuePair> keyValuePairs) {
+        if (isNull(keyValuePairs) || keyValuePairs.isEmpty()) {
+            return keyValuePairs;
+        }
+        final var literalFieldNames = rules().literalFieldNames();
+        List<KeyValuePair> maskedKeyValuePairs = null;
+        for (int i = 0; i < keyValuePairs.size(); i++) {
+            final var keyValuePair = keyValuePairs.get(i);
+            if (isNull(keyValuePair.key) || isNull(keyValuePair.value) || !literalFieldNames.contains(keyValuePair.key)) {
+                continue;
+            }
+            if (isNull(maskedKeyValuePairs)) {
+                maskedKeyValuePairs = new ArrayList<>(keyValuePairs);
+            }
+            maskedKeyValuePairs.set(i, new KeyValuePair(keyValuePair.key, maskSensitiveValue(keyValuePair.value.toString())));
+        }
+        return isNull(maskedKeyValuePairs) ? keyValuePairs : maskedKeyValuePairs;
+    }
+
+    protected void maskLogMessage(final CharSequence logMessage, final StringBuilder target) {
+        target.append(maskLogMessage(logMessage.toString()));
+    }
+
+    protected String maskSensitiveValues(final String logMessage, final SensitiveValueMasker masker) {
+        final var rules = rules();
+        if (isNull(metrics)) {
+            return maskMessage(rules, logMessage, masker);
+        }
+        final var startTime = metrics.startTiming();
+        final var maskedMessage = maskMessage(rules, logMessage, masker);
+        metrics.recordMessage(!Objects.equals(logMessage, maskedMessage), startTime);
+        return maskedMessage;
+    }
+
+    protected void maskSensitiveValues(final CharSequence logMessage, final SensitiveValueMasker masker, final StringBuilder target) {
+        final var rules = rules();
+        if (isNull(metrics)) {
+            maskMessage(rules, logMessage, masker, target);
+            return;
+        }
+        final var startTime = metrics.startTiming();
+        final var resultStart = target.length();
+        maskMessage(rules, logMessage, masker, target);
+        metrics.recordMessage(!isUnchanged(logMessage, target, resultStart), startTime);
+    }
+
+    private String maskMessage(final MaskingRules rules, final String logMessage, final SensitiveValueMasker masker) {
+        if (isOversized(logMessage)) {
+            final var maskedMessage = new StringBuilder(maxScanLength + TRUNCATION_MARKER.length());
+            maskOversizedMessage(rules, logMessage, masker, maskedMessage);
+            return maskedMessage.toString();
+        }
+        return maskSensitiveValuesOrGetCached(rules, logMessage, masker);
+    }
+
+    private void maskMessage(final MaskingRules rules, final CharSequence logMessage, final SensitiveValueMasker masker,
+                             final StringBuilder target) {
+        if (isOversized(logMessage)) {
+            maskOversizedMessage(rules, logMessage, masker, target);
+        } else {
+            maskSensitiveValuesOrGetCached(rules, logMessage, masker, target);
+        }
+    }
+
+    private void maskOversizedMessage(final MaskingRules rules, final CharSequence logMessage, final SensitiveValueMasker masker,
+                                      final StringBuilder target) {
+        final var scanEnd = scanEnd(rules, logMessage);
+        maskSensitiveValuesOrGetCached(rules, logMessage.subSequence(0, scanEnd), masker, target);
+        switch (oversizedMessagePolicy) {
+            case TRUNCATE -> target.append(TRUNCATION_MARKER);
+            case MASK_REMAINDER -> masker.mask(target, logMessage, scanEnd, logMessage.length());
+        }
+    }
+
+    private String maskSensitiveValuesOrGetCached(final MaskingRules rules, final String logMessage, final SensitiveValueMasker masker) {
+        if (isNull(logMessage) || !mayContainSensitiveData(rules, logMessage)) {
+            return logMessage;
+        }
+        final var cacheable = isCacheable(rules, logMessage);
+        final var cachedMessage = cacheable ? getCached(rules.resultCache(), logMessage) : null;
+        if (!isNull(cachedMessage)) {
+            return cachedMessage;
+        }
+        final var maskedMessage = new StringBuilder(logMessage.length());
+        if (!cacheable) {
+            maskPossiblySensitiveValues(rules, logMessage, masker, maskedMessage);
+            return maskedMessage.toString();
+        }
+        final var matches = maskAndCaptureMatches(rules, logMessage, masker, maskedMessage);
+        final var result = maskedMessage.toString();
+        rules.resultCache().put(logMessage, result, matches);
+        return result;
+    }
+
+    private void maskSensitiveValuesOrGetCached(final MaskingRules rules, final CharSequence logMessage, final SensitiveValueMasker masker,
+                                                final StringBuilder target) {
+        if (!mayContainSensitiveData(rules, logMessage)) {
+            target.append(logMessage);
+            return;
+        }
+        if (!isCacheable(rules, logMessage)) {
+            maskPossiblySensitiveValues(rules, logMessage, masker, target);
+            return;
+        }
+        final var cachedMessage = getCached(rules.resultCache(), logMessage);
+        if (!isNull(cachedMessage)) {
+            target.append(cachedMessage);
+            return;
+        }
+        final var resultStart = target.length();
+        final var matches = maskAndCaptureMatches(rules, logMessage, masker, target);
+        rules.resultCache().put(logMessage, target.substring(resultStart), matches);
+    }
+
+    private String getCached(final MaskingResultCache resultCache, final CharSequence logMessage) {
+        final var cachedResult = resultCache.lookup(logMessage);
+        if (isNull(cachedResult)) {
+            return null;
+        }
+        if (!isNull(metrics)) {
+            metrics.recordMatches(cachedResult.matches());
+        }
+        return cachedResult.maskedMessage();
+    }
+
+    private String[] maskAndCaptureMatches(final MaskingRules rules, final CharSequence logMessage, final SensitiveValueMasker masker,
+                                           final StringBuilder target) {
+        if (isNull(metrics)) {
+            maskPossiblySensitiveValues(rules, logMessage, masker, target);
+            return MaskingMetrics.NO_MATCHES;
+        }
+        metrics.startCapturingMatches();
+        try {
+            maskPossiblySensitiveValues(rules, logMessage, masker, target);
+        } catch (final RuntimeException ex) {
+            metrics.stopCapturingMatches();
+            throw ex;
+        }
+        return metrics.stopCapturingMatches();
+    }
+
+    private void maskPossiblySensitiveValues(final MaskingRules rules, final CharSequence logMessage, final SensitiveValueMasker masker,
+                                             final StringBuilder target) {
+        final var resultStart = target.length();
+        try {
+            final var currentParallelMasking = parallelMasking;
+            if (isMaskedInParallel(currentParallelMasking, rules, logMessage)) {
+                try {
+                    currentParallelMasking.mask(logMessage, (message, from, to, segmentTarget) ->
+                            maskSegment(rules, message, from, to, masker, segmentTarget), target);
+                    return;
+                } catch (final RejectedExecutionException ex) {
+                    target.setLength(resultStart);
+                }
+            }
+            final var input = withMatchBudget(rules.sensitiveDataMatcher(), logMessage, logMessage.length());
+            if (isNull(rules.jsonValueMasker())) {
+                maskSensitiveValues(rules, input, 0, input.length(), masker, target);
+            } else {
+                maskSensitiveValuesInJson(rules, input, masker, target);
+            }
+        } catch (final BudgetedCharSequence.BudgetExceededException ex) {
+            if (!isNull(metrics)) {
+                metrics.recordBudgetExceeded();
+            }
+            switch (budgetExceededPolicy) {
+                case MASK_LINE -> {
+                    target.setLength(resultStart);
+                    masker.mask(target, logMessage, 0, logMessage.length());
+                }
+                case TRUNCATE -> target.append(TRUNCATION_MARKER);
+            }
+        }
+    }
+
+    private CharSequence withMatchBudget(final SensitiveDataMatcher sensitiveDataMatcher, final CharSequence logMessage,
+                                         final int scannedLength) {
+        if (maxMatchStepsPerCharacter == 0 || isNull(sensitiveDataMatcher) || sensitiveDataMatcher.isLinear()) {
+            return logMessage;
+        }
+        return new BudgetedCharSequence(logMessage, (long) maxMatchStepsPerCharacter * (scannedLength + 1));
+    }
+
+    private static boolean isMaskedInParallel(final ParallelMasking parallelMasking, final MaskingRules rules,
+                                              final CharSequence logMessage) {
+        return !isNull(parallelMasking) && isNull(rules.jsonValueMasker()) && isNull(rules.valueShapeDetector())
+                && !isNull(rules.sensitiveDataMatcher()) && parallelMasking.accepts(logMessage);
+    }
+
+    private int maskSegment(final MaskingRules rules, final CharSequence logMessage, final int from, final int to,
+                            final SensitiveValueMasker masker, final StringBuilder target) {
+        final var input = withMatchBudget(rules.sensitiveDataMatcher(), logMessage, to - from);
+        try (final var search = search(rules.sensitiveDataMatcher(), input)) {
+            var lastIndex = from;
+            var searchFrom = from;
+            while (searchFrom < to && search.findStartingBefore(searchFrom, to, input.length())) {
+                searchFrom = search.end();
+                final var valueStart = search.valueStart();
+                if (valueStart < 0) {
+                    continue;
+                }
+                final var valueEnd = search.valueEnd();
+                if (!isNull(metrics)) {
+                    recordMatch(rules.literalFieldNames(), input, search);
+                }
+                appendUnmatched(rules, input, lastIndex, valueStart, masker, target);
+                masker.mask(target, input, valueStart, valueEnd);
+                lastIndex = valueEnd;
+            }
+            final var maskedUntil = Math.max(to, searchFrom);
+            appendUnmatched(rules, input, lastIndex, maskedUntil, masker, target);
+            return maskedUntil;
+        }
+    }
+
+    private void maskSensitiveValuesInJson(final MaskingRules rules, final CharSequence logMessage, final SensitiveValueMasker masker,
+                                           final StringBuilder target) {
+        final var jsonValueMasker = rules.jsonValueMasker();
+        final var maskedJson = jsonBuffer.acquire();
+        var segmentStart = 0;
+        var jsonStart = indexOf(logMessage, '{', 0);
+        while (jsonStart >= 0) {
+            final var jsonEnd = jsonValueMasker.mask(logMessage, jsonStart, logMessage.length(), masker, maskedJson);
+            if (jsonEnd == JsonValueMasker.NOT_JSON) {
+                jsonStart = indexOf(logMessage, '{', jsonStart + 1);
+                continue;
+            }
+            maskSensitiveValues(rules, logMessage, segmentStart, jsonStart, masker, target);
+            target.append(maskedJson);
+            maskedJson.setLength(0);
+            segmentStart = jsonEnd;
+            jsonStart = indexOf(logMessage, '{', jsonEnd);
+        }
+        maskSensitiveValues(rules, logMessage, segmentStart, logMessage.length(), masker, target);
+    }
+
+    private void maskSensitiveValues(final MaskingRules rules, final CharSequence logMessage, final int from, final int to,
+                                     final SensitiveValueMasker masker, final StringBuilder target) {
+        final var sensitiveDataMatcher = rules.sensitiveDataMatcher();
+        if (isNull(sensitiveDataMatcher) || !sensitiveDataMatcher.mayContainSensitiveData(logMessage, from, to)) {
+            appendUnmatched(rules, logMessage, from, to, masker, target);
+            return;
+        }
+        try (final var search = search(sensitiveDataMatcher, logMessage)) {
+            var lastIndex = from;
+            var searchFrom = from;
+            var windowEnd = chunkSize == 0 ? to : Math.min(to, from + chunkSize);
+            while (true) {
+                final var regionEnd = windowEnd == to ? to : Math.min(to, windowEnd + chunkOverlap);
+                var found = search.findStartingBefore(searchFrom, windowEnd, regionEnd);
+                if (found && regionEnd < to && search.end() == regionEnd && search.valueStart() >= 0) {
+                    final var valueStart = search.valueStart();
+                    if (!search.findStartingBefore(search.start(), search.start() + 1, to)) {
+                        appendUnmatched(rules, logMessage, lastIndex, valueStart, masker, target);
+                        masker.mask(target, logMessage, valueStart, to);
+                        lastIndex = to;
+                        break;
+                    }
+                } else if (!found && regionEnd < to) {
+                    found = search.findStartingBefore(searchFrom, windowEnd, to);
+                }
+                if (!found) {
+                    if (regionEnd == to) {
+                        break;
+                    }
+                    searchFrom = Math.max(searchFrom, windowEnd);
+                    windowEnd = Math.min(to, searchFrom + chunkSize);
+                    continue;
+                }
+                searchFrom = search.end();
+                final var valueStart = search.valueStart();
+                if (valueStart < 0) {
+                    continue;
+                }
+                final var valueEnd = search.valueEnd();
+                if (!isNull(metrics)) {
+                    recordMatch(rules.literalFieldNames(), logMessage, search);
+                }
+                appendUnmatched(rules, logMessage, lastIndex, valueStart, masker, target);
+                masker.mask(target, logMessage, valueStart, valueEnd);
+                lastIndex = valueEnd;
+            }
+            appendUnmatched(rules, logMessage, lastIndex, to, masker, target);
+        }
+    }
+
+    private SensitiveValueSearch search(final SensitiveDataMatcher sensitiveDataMatcher, final CharSequence logMessage) {
+        final var search = sensitiveDataMatcher.search(logMessage);
+        return overlapPolicy == OverlapPolicy.OUTERMOST ? search : new ResolvingSearch(search, overlapPolicy);
+    }
+
+    private static void appendUnmatched(final MaskingRules rules, final CharSequence logMessage, final int from, final int to,
+                                        final SensitiveValueMasker masker, final StringBuilder target) {
+        final var valueShapeDetector = rules.valueShapeDetector();
+        if (isNull(valueShapeDetector)) {
+            target.append(logMessage, from, to);
+        } else {
+            valueShapeDetector.mask(logMessage, from, to, masker, target);
+        }
+    }
+
+    private void recordMatch(final FieldNameSet literalFieldNames, final CharSequence logMessage, final SensitiveValueSearch search) {
+        final var nameStart = search.nameStart();
+        final var nameEnd = search.nameEnd();
+        final var fieldName = literalFieldNames.find(logMessage, nameStart, nameEnd);
+        metrics.recordMatch(isNull(fieldName) ? logMessage.subSequence(nameStart, nameEnd).toString() : fieldName,
+                search.template());
+    }
+
+    private static boolean isUnchanged(final CharSequence logMessage, final StringBuilder target, final int resultStart) {
+        if (target.length() - resultStart != logMessage.length()) {
+            return false;
+        }
+        for (int i = 0; i < logMessage.length(); i++) {
+            if (target.charAt(resultStart + i) != logMessage.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isOversized(final CharSequence logMessage) {
+        return maxScanLength > 0 && !isNull(logMessage) && logMessage.length() > maxScanLength;
+    }
+
+    private int scanEnd(final MaskingRules rules, final CharSequence logMessage) {
+        var scanEnd = maxScanLength;
+        if (!isNull(rules.sensitiveDataMatcher())) {
+            scanEnd = rules.sensitiveDataMatcher().safeScanEnd(logMessage, Math.max(0, scanEnd - chunkOverlap), scanEnd);
+        }
+        if (!isNull(rules.jsonValueMasker())) {
+            scanEnd = Math.min(scanEnd, unclosedJsonStart(logMessage, scanEnd));
+        }
+        return scanEnd;
+    }
+
+    private static int unclosedJsonStart(final CharSequence logMessage, final int to) {
+        var depth = 0;
+        var jsonStart = to;
+        var inString = false;
+        for (int i = 0; i < to; i++) {
+            final var character = logMessage.charAt(i);
+            if (inString) {
+                if (character == '\\') {
+                    i++;
+                } else if (character == '"') {
+                    inString = false;
+                }
+            } else if (character == '{') {
+                if (depth++ == 0) {
+                    jsonStart = i;
+                }
+            } else if (character == '}' && depth > 0) {
+                if (--depth == 0) {
+                    jsonStart = to;
+                }
+            } else if (character == '"' && depth > 0) {
+                inString = true;
+            }
+        }
+        return depth == 0 ? to : jsonStart;
+    }
+
+    private static boolean mayContainSensitiveData(final MaskingRules rules, final CharSequence logMessage) {
+        return (!isNull(rules.jsonValueMasker()) && indexOf(logMessage, '{', 0) >= 0)
+                || (!isNull(rules.sensitiveDataMatcher()) && rules.sensitiveDataMatcher().mayContainSensitiveData(logMessage))
+                || (!isNull(rules.valueShapeDetector()) && rules.valueShapeDetector().mayContainSensitiveData(logMessage));
+    }
+
+    private boolean isCacheable(final MaskingRules rules, final CharSequence logMessage) {
+        final var resultCache = rules.resultCache();
+        return !isNull(resultCache) && resultCache.isCacheable(logMessage)
+                && (isNull(metrics) || !isMaskedInParallel(parallelMasking, rules, logMessage));
+    }
+
+    synchronized void replaceRules(final Collection<String> newPatterns, final Collection<String> newFieldNames) {
+        if (newFieldNames.isEmpty()) {
+            throw new IncorrectConfigurationException("There is no field name to mask");
+        }
+        if (newFieldNames.stream().anyMatch(AbstractSensitiveDataObfuscatorLayout::isBlank)) {
+            throw new IncorrectConfigurationException("Field name can not be blank");
+        }
+        if (newPatterns.isEmpty() && isNull(patternRegistry) && !jsonMode) {
+            throw new IncorrectConfigurationException("There is no pattern to detecting sensitive data");
+        }
+        final var previousPatterns = patterns;
+        final var previousFieldNames = fieldNames;
+        patterns = new LinkedHashSet<>(newPatterns);
+        fieldNames = new LinkedHashSet<>(newFieldNames);
+        try {
+            compileMatchers();
+        } catch (final RuntimeException ex) {
+            patterns = previousPatterns;
+            fieldNames = previousFieldNames;
+            throw ex;
+        }
+        warnAboutRegexpFieldNames(fieldNames);
+    }
+
+    void warnAboutRegexpFieldNames(final Collection<String> fieldNames) {
+        fieldNames.stream()
+                .filter(SensitiveDataPatternFactory::containsRegexpMetacharacters)
+                .forEach(fieldName -> addWarn("Field name [%s] contains regular expression characters, it is matched literally"
+                        .formatted(fieldName)));
+    }
+
+    synchronized List<String> configuredPatterns() {
+        return List.copyOf(patterns);
+    }
+
+    synchronized List<String> configuredFieldNames() {
+        return List.copyOf(fieldNames);
+    }
+
+    MaskingRulesReloader rulesReloader() {
+        return rulesReloader;
+    }
+
+    MaskingRules compiledRules() {
+        return rules();
     }
 
-    private boolean validatePattern(final String pattern) {
-        return isBlank(pattern) || notContainMarker(pattern);
+    private MaskingRules rules() {
+        final var compiledRules = rules;
+        return isNull(compiledRules) ? compileMatchers() : compiledRules;
     }
 
-    private boolean validatePatternName(final String predefinedPatternName) {
+    private void rulesChanged() {
+        if (isStarted()) {
+            compileMatchers();
+        } else {
+            rules = null;
+        }
+    }
+
+    private void compileAndReportMatchers() {
+        final var startTime = System.nanoTime();
+        final var compiledRules = compileMatchers();
+        final var compileMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        final var effectivePatterns = effectivePatterns();
+        final var effectiveFieldNames = effectiveFieldNames();
+        if (!isNull(patternRegistry)) {
+            fieldNames.stream()
+                    .filter(patternRegistry.fieldNames()::contains)
+                    .forEach(fieldName -> addWarn("Field name [%s] is already defined in pattern registry [%s]"
+                            .formatted(fieldName, patternRegistry.getName())));
+        }
+        warnAboutRegexpFieldNames(effectiveFieldNames);
+        final var templates = List.copyOf(effectivePatterns);
+        for (int i = 0; i < templates.size(); i++) {
+            for (int j = i + 1; j < templates.size(); j++) {
+                if (SensitiveDataPatternFactory.overlap(templates.get(i), templates.get(j))) {
+                    addWarn("Patterns [%s] and [%s] can match the same text, the one added first wins"
+                            .formatted(templates.get(i), templates.get(j)));
+                }
+            }
+        }
+        final var sensitiveDataMatcher = compiledRules.sensitiveDataMatcher();
+        addInfo("Compiled [%d] field names and [%d] patterns in [%d] ms, %s".formatted(effectiveFieldNames.size(),
+                effectivePatterns.size(), compileMillis, isNull(sensitiveDataMatcher)
+                        ? "no matcher is needed" : "the matcher has [%d] characters".formatted(sensitiveDataMatcher.size())));
+    }
+
+    private synchronized MaskingRules compileMatchers() {
+        final var effectivePatterns = effectivePatterns();
+        final var effectiveFieldNames = effectiveFieldNames();
+        final SensitiveDataMatcher sensitiveDataMatcher;
+        if (!isNull(patternRegistry) && patterns.isEmpty() && fieldNames.isEmpty()) {
+            sensitiveDataMatcher = patternRegistry.matcher(linearTimeMatching, anchorScanning, normalizedFieldNames);
+        } else {
+            sensitiveDataMatcher = effectivePatterns.isEmpty() || effectiveFieldNames.isEmpty()
+                    ? null : patternFactory.create(effectiveFieldNames, effectivePatterns, linearTimeMatching, anchorScanning,
+                    normalizedFieldNames);
+        }
+        final var literalFieldNames = normalizedFieldNames
+                ? new FieldNameSet(NormalizedFieldNames.variants(effectiveFieldNames), true) : new FieldNameSet(effectiveFieldNames);
+        final var jsonValueMasker = jsonMode && !effectiveFieldNames.isEmpty()
+                ? new JsonValueMasker(literalFieldNames, maskJsonStructures, metrics) : null;
+        final var valueShapeDetector = valueShapes.isEmpty() ? null : new ValueShapeDetector(valueShapes, metrics);
+        final var resultCache = resultCacheSize > 0 ? new MaskingResultCache(resultCacheSize, maxCacheableLength) : null;
+        final var compiledRules = new MaskingRules(sensitiveDataMatcher, literalFieldNames, jsonValueMasker, valueShapeDetector,
+                resultCache);
+        rules = compiledRules;
+        return compiledRules;
+    }
+
+    synchronized Set<String> effectivePatterns() {
+        return effective(patterns, isNull(patternRegistry) ? Set.of() : patternRegistry.patterns());
+    }
+
+    synchronized Set<String> effectiveFieldNames() {
+        return effective(fieldNames, isNull(patternRegistry) ? Set.of() : patternRegistry.fieldNames());
+    }
+
+    private static Set<String> effective(final Set<String> own, final Set<String> shared) {
+        if (shared.isEmpty()) {
+            return own;
+        }
+        final var effective = new LinkedHashSet<>(shared);
+        effective.addAll(own);
+        return effective;
+    }
+
+    private void registerMetrics() {
+        if (isNull(metrics) || isNull(jmxObjectName)) {
+            return;
+        }
+        try {
+            registeredObjectName = new ObjectName(jmxObjectName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, registeredObjectName);
+        } catch (final JMException ex) {
+            registeredObjectName = null;
+            addError("Failed to register masking metrics as [%s]".formatted(jmxObjectName), ex);
+        }
+    }
+
+    private void startRulesReloader() {
+        if (isNull(rulesFile) && isNull(rulesJmxObjectName)) {
+            return;
+        }
+        rulesReloader = new MaskingRulesReloader(this, isNull(rulesFile) ? null : Path.of(rulesFile));
+        if (!isNull(rulesFile)) {
+            rulesReloader.run();
+            final var period = rulesScanPeriod.getMilliseconds();
+            rulesScan = getContext().getScheduledExecutorService()
+                    .scheduleWithFixedDelay(rulesReloader, period, period, TimeUnit.MILLISECONDS);
+        }
+        if (!isNull(rulesJmxObjectName)) {
+            try {
+                registeredRulesObjectName = new ObjectName(rulesJmxObjectName);
+                ManagementFactory.getPlatformMBeanServer().registerMBean(rulesReloader, registeredRulesObjectName);
+            } catch (final JMException ex) {
+                registeredRulesObjectName = null;
+                addError("Failed to register masking rules as [%s]".formatted(rulesJmxObjectName), ex);
+            }
+        }
+    }
+
+    private void startParallelMasking() {
+        stopParallelMasking();
+        if (parallelMaskingThreshold == 0) {
+            return;
+        }
+        if (chunkSize > 0 || jsonMode || !valueShapes.isEmpty()) {
+            addWarn("Parallel masking is not used together with chunkSize, jsonMode or valueShapes");
+            return;
+        }
+        parallelMasking = new ParallelMasking(parallelism, parallelMaskingThreshold);
+    }
+
+    private void stopParallelMasking() {
+        final var currentParallelMasking = parallelMasking;
+        parallelMasking = null;
+        if (!isNull(currentParallelMasking)) {
+            currentParallelMasking.shutdown();
+        }
+    }
+
+    private void stopRulesReloader() {
+        if (!isNull(rulesScan)) {
+            rulesScan.cancel(false);
+            rulesScan = null;
+        }
+        if (!isNull(registeredRulesObjectName)) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredRulesObjectName);
+            } catch (final JMException ex) {
+                addError("Failed to unregister masking rules [%s]".formatted(registeredRulesObjectName), ex);
+            }
+            registeredRulesObjectName = null;
+        }
+        rulesReloader = null;
+    }
+
+    private void unregisterMetrics() {
+        if (isNull(registeredObjectName)) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredObjectName);
+        } catch (final JMException ex) {
+            addError("Failed to unregister masking metrics [%s]".formatted(registeredObjectName), ex);
+        }
+        registeredObjectName = null;
+    }
+
+    private static int indexOf(final CharSequence logMessage, final char character, final int from) {
+        for (int i = from; i < logMessage.length(); i++) {
+            if (logMessage.charAt(i) == character) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean bindSensitiveDataConverters(final Converter<ILoggingEvent> head) {
+        final var sensitiveDataConverters = new ArrayList<SensitiveDataConverter>();
+        final var unmaskedDataConverters = new LinkedHashSet<String>();
+        collectDataConverters(head, sensitiveDataConverters, unmaskedDataConverters);
+        if (sensitiveDataConverters.isEmpty()) {
+            return false;
+        }
+        if (!unmaskedDataConverters.isEmpty()) {
+            addWarn("Pattern [%s] also contains converters that are not masked %s, so the whole line is masked instead"
+                    .formatted(getPattern(), unmaskedDataConverters));
+            sensitiveDataConverters.forEach(sensitiveDataConverter -> sensitiveDataConverter.setObfuscatorLayout(null));
+            return false;
+        }
+        sensitiveDataConverters.forEach(sensitiveDataConverter -> sensitiveDataConverter.setObfuscatorLayout(this));
+        return true;
+    }
+
+    private static void collectDataConverters(final Converter<ILoggingEvent> head, final List<SensitiveDataConverter> sensitiveDataConverters,
+                                              final Set<String> unmaskedDataConverters) {
+        for (var converter = head; !isNull(converter); converter = converter.getNext()) {
+            if (converter instanceof SensitiveDataConverter sensitiveDataConverter) {
+                sensitiveDataConverters.add(sensitiveDataConverter);
+            } else if (isDataConverter(converter)) {
+                unmaskedDataConverters.add(converter.getClass().getSimpleName());
+            }
+            if (converter instanceof CompositeConverter<ILoggingEvent> compositeConverter) {
+                collectDataConverters(compositeConverter.getChildConverter(), sensitiveDataConverters, unmaskedDataConverters);
+            }
+        }
+    }
+
+    private static boolean containsSensitiveDataConverter(final Converter<ILoggingEvent> head) {
+        final var sensitiveDataConverters = new ArrayList<SensitiveDataConverter>();
+        collectDataConverters(head, sensitiveDataConverters, new LinkedHashSet<>());
+        return !sensitiveDataConverters.isEmpty();
+    }
+
+    private static boolean isDataConverter(final Converter<ILoggingEvent> converter) {
+        return converter instanceof MessageConverter
+                || converter instanceof MDCConverter
+                || converter instanceof KeyValuePairConverter
+                || (converter instanceof ThrowableHandlingConverter && !(converter instanceof NopThrowableInformationConverter));
+    }
+
+    private static boolean validatePattern(final String pattern) {
+        return isBlank(pattern) || notContainMarker(pattern) || notContainSensitiveValueGroup(pattern);
+    }
+
+    private static boolean validatePatternName(final String predefinedPatternName) {
         return isBlank(predefinedPatternName) || SensitiveDataPatternFactory.SensitiveValuePatterns.isValidName(predefinedPatternName);
     }
 
@@ -71,8 +1097,45 @@ public abstract class AbstractSensitiveDataObfuscatorLayout extends PatternLayou
         return !pattern.contains(SensitiveDataPatternFactory.PROPERTY_NAME_MARKER);
     }
 
+    private static boolean notContainSensitiveValueGroup(final String pattern) {
+        try {
+            return patternFactory.create("", pattern).matcher("").groupCount() < SENSITIVE_VALUE_GROUP;
+        } catch (final PatternSyntaxException ex) {
+            return true;
+        }
+    }
+
     private static boolean isBlank(final String str) {
         return isNull(str) || str.isBlank();
     }
 
+    static boolean isBlank(final CharSequence logMessage, final int valueStart, final int valueEnd) {
+        for (int i = valueStart; i < valueEnd; i++) {
+            if (!Character.isWhitespace(logMessage.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public enum OversizedMessagePolicy {
+        TRUNCATE,
+        MASK_REMAINDER
+    }
+
+    public enum BudgetExceededPolicy {
+        MASK_LINE,
+        TRUNCATE
+    }
+
+    public enum OverlapPolicy {
+        OUTERMOST,
+        FIRST,
+        LONGEST
+    }
+
+    @FunctionalInterface
+    protected interface SensitiveValueMasker {
+        void mask(StringBuilder target, CharSequence logMessage, int valueStart, int valueEnd);
+    }
 }
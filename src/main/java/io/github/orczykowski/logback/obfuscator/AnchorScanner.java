@@ -0,0 +1,170 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+final class AnchorScanner {
+    static final int NOT_FOUND = -1;
+    private static final int ASCII_SIZE = 128;
+
+    private final char[] anchors;
+    private final String[] anchorStrings;
+    private final boolean[] asciiAnchors = new boolean[ASCII_SIZE];
+    private final FieldNameSet fieldNames;
+    private final int[] nameLengths;
+    private final int[] prefixLengths;
+    private final int shortestName;
+
+    AnchorScanner(final Collection<String> fieldNames, final Set<Character> anchors, final Collection<Integer> prefixLengths) {
+        this(fieldNames, anchors, prefixLengths, false);
+    }
+
+    AnchorScanner(final Collection<String> fieldNames, final Set<Character> anchors, final Collection<Integer> prefixLengths,
+                  final boolean ignoreCase) {
+        this.anchors = new char[anchors.size()];
+        this.anchorStrings = new String[anchors.size()];
+        var index = 0;
+        for (final char anchor : anchors) {
+            this.anchors[index] = anchor;
+            this.anchorStrings[index++] = String.valueOf(anchor);
+            if (anchor < ASCII_SIZE) {
+                asciiAnchors[anchor] = true;
+            }
+        }
+        this.fieldNames = new FieldNameSet(fieldNames, ignoreCase);
+        this.nameLengths = descending(fieldNames.stream().map(String::length).toList());
+        this.prefixLengths = descending(prefixLengths);
+        this.shortestName = nameLengths[nameLengths.length - 1];
+    }
+
+    Cursor cursor(final CharSequence input) {
+        return new Cursor(input);
+    }
+
+    int[] nameLengths() {
+        return nameLengths;
+    }
+
+    int[] prefixLengths() {
+        return prefixLengths;
+    }
+
+    int longestCandidate() {
+        return nameLengths[0] + prefixLengths[0];
+    }
+
+    boolean isName(final CharSequence input, final int nameStart, final int nameEnd) {
+        return fieldNames.contains(input, nameStart, nameEnd);
+    }
+
+    boolean containsName(final CharSequence input, final int from, final int to) {
+        final var scanFrom = from + shortestName;
+        if (input instanceof String || input instanceof StringBuilder) {
+            for (int i = 0; i < anchors.length; i++) {
+                for (var anchor = indexOf(input, i, scanFrom); anchor != NOT_FOUND && anchor < to; anchor = indexOf(input, i, anchor + 1)) {
+                    if (endsWithName(input, from, anchor)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        for (int i = scanFrom; i < to; i++) {
+            if (isAnchor(input.charAt(i)) && endsWithName(input, from, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean endsWithName(final CharSequence input, final int from, final int nameEnd) {
+        for (final int nameLength : nameLengths) {
+            if (nameEnd - nameLength >= from && fieldNames.contains(input, nameEnd - nameLength, nameEnd)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(final CharSequence input, final int anchorIndex, final int from) {
+        if (input instanceof String string) {
+            return string.indexOf(anchors[anchorIndex], from);
+        }
+        return ((StringBuilder) input).indexOf(anchorStrings[anchorIndex], from);
+    }
+
+    private boolean isAnchor(final char character) {
+        if (character < ASCII_SIZE) {
+            return asciiAnchors[character];
+        }
+        for (final char anchor : anchors) {
+            if (anchor == character) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] descending(final Collection<Integer> values) {
+        final var sorted = new TreeSet<Integer>(Comparator.reverseOrder());
+        sorted.addAll(values);
+        return sorted.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    final class Cursor {
+        private final CharSequence input;
+        private final int[] nextAnchors;
+        private final int[] scannedFrom;
+
+        private Cursor(final CharSequence input) {
+            this.input = input;
+            this.nextAnchors = new int[anchors.length];
+            this.scannedFrom = new int[anchors.length];
+            Arrays.fill(scannedFrom, Integer.MAX_VALUE);
+        }
+
+        int find(final int from, final int to) {
+            return find(from, from, to);
+        }
+
+        int find(final int from, final int anchorFrom, final int to) {
+            var anchor = nextAnchor(Math.max(anchorFrom, from + shortestName), to);
+            while (anchor != NOT_FOUND) {
+                if (endsWithName(input, from, anchor)) {
+                    return anchor;
+                }
+                anchor = nextAnchor(anchor + 1, to);
+            }
+            return NOT_FOUND;
+        }
+
+        private int nextAnchor(final int from, final int to) {
+            if (input instanceof String || input instanceof StringBuilder) {
+                return nextIndexedAnchor(from, to);
+            }
+            for (int i = from; i < to; i++) {
+                if (isAnchor(input.charAt(i))) {
+                    return i;
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        private int nextIndexedAnchor(final int from, final int to) {
+            var next = Integer.MAX_VALUE;
+            for (int i = 0; i < anchors.length; i++) {
+                if (from < scannedFrom[i] || (nextAnchors[i] != NOT_FOUND && nextAnchors[i] < from)) {
+                    nextAnchors[i] = indexOf(input, i, from);
+                    scannedFrom[i] = from;
+                }
+                if (nextAnchors[i] != NOT_FOUND) {
+                    next = Math.min(next, nextAnchors[i]);
+                }
+            }
+            return next < to ? next : NOT_FOUND;
+        }
+    }
+}
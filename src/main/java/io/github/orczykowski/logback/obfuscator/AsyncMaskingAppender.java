@@ -0,0 +1,349 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import org.slf4j.event.KeyValuePair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.isNull;
+
+public class AsyncMaskingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final int DEFAULT_MAX_FLUSH_TIME = 1000;
+    private static final int SPINS_BEFORE_PARKING = 64;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder droppedEvents = new LongAdder();
+    private AbstractSensitiveDataObfuscatorLayout layout;
+    private MaskingRingBuffer<ILoggingEvent> ringBuffer;
+    private List<Thread> workers = List.of();
+    private volatile boolean running;
+    private int appenderCount;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private int workerCount = 1;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private Level dropBelowLevel = Level.WARN;
+    private int maxFlushTime = DEFAULT_MAX_FLUSH_TIME;
+    private boolean includeCallerData;
+    private boolean batchFlush = true;
+    private OutputStreamAppender<ILoggingEvent> flushedAppender;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (appenderCount == 0) {
+            addError("No attached appenders found.");
+            return;
+        }
+        if (isNull(layout)) {
+            addError("No sensitive data obfuscator layout set for the appender named [%s].".formatted(name));
+            return;
+        }
+        if (queueSize < 1 || workerCount < 1) {
+            addError("Invalid queue size [%d] or number of workers [%d]".formatted(queueSize, workerCount));
+            return;
+        }
+        ringBuffer = new MaskingRingBuffer<>(queueSize);
+        running = true;
+        final var startedWorkers = new ArrayList<Thread>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            final var worker = new Thread(this::maskAndWrite, "AsyncMaskingAppender-Worker-%s-%d".formatted(getName(), i));
+            worker.setDaemon(true);
+            startedWorkers.add(worker);
+        }
+        workers = List.copyOf(startedWorkers);
+        flushedAppender = batchFlush ? takeOverFlushing() : null;
+        super.start();
+        workers.forEach(Thread::start);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        final var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxFlushTime);
+        for (final Thread worker : workers) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                addError("Failed to join worker thread. %d queued events may be discarded.".formatted(ringBuffer.size()), ex);
+                return;
+            }
+        }
+        if (!ringBuffer.isEmpty()) {
+            addWarn("Max flush timeout (%d ms) exceeded. Approximately %d queued events were possibly discarded."
+                    .formatted(maxFlushTime, ringBuffer.size()));
+        }
+        if (!isNull(flushedAppender)) {
+            flushedAppender.setImmediateFlush(true);
+            flushedAppender = null;
+        }
+        addInfo("Detaching and stopping the appender attached to AsyncMaskingAppender [%s].".formatted(getName()));
+        appenders.detachAndStopAllAppenders();
+        appenderCount = 0;
+    }
+
+    @Override
+    protected void append(final ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (ringBuffer.offer(event)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> put(event);
+            case DROP_BELOW_LEVEL -> {
+                if (event.getLevel().isGreaterOrEqual(dropBelowLevel)) {
+                    put(event);
+                } else {
+                    droppedEvents.increment();
+                }
+            }
+            case MASK_SYNCHRONOUSLY -> maskQueuedAndPut(event);
+        }
+    }
+
+    public void setLayout(final AbstractSensitiveDataObfuscatorLayout layout) {
+        this.layout = layout;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setWorkers(final int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setDropBelowLevel(final String dropBelowLevel) {
+        this.dropBelowLevel = Level.toLevel(dropBelowLevel, Level.WARN);
+    }
+
+    public void setMaxFlushTime(final int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public void setIncludeCallerData(final boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public void setBatchFlush(final boolean batchFlush) {
+        this.batchFlush = batchFlush;
+    }
+
+    public int getQueueSize() {
+        return isNull(ringBuffer) ? queueSize : ringBuffer.capacity();
+    }
+
+    public int getNumberOfElementsInQueue() {
+        return isNull(ringBuffer) ? 0 : ringBuffer.size();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public void addAppender(final Appender<ILoggingEvent> newAppender) {
+        if (appenderCount == 0) {
+            appenderCount++;
+            addInfo("Attaching appender named [%s] to AsyncMaskingAppender.".formatted(newAppender.getName()));
+            appenders.addAppender(newAppender);
+        } else {
+            addWarn("One and only one appender may be attached to AsyncMaskingAppender.");
+            addWarn("Ignoring additional appender named [%s]".formatted(newAppender.getName()));
+        }
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(final String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(final Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(final Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(final String name) {
+        return appenders.detachAppender(name);
+    }
+
+    private void put(final ILoggingEvent event) {
+        var idle = 0;
+        while (!ringBuffer.offer(event)) {
+            if (!running) {
+                droppedEvents.increment();
+                return;
+            }
+            idle = backOff(idle);
+        }
+    }
+
+    private void maskQueuedAndPut(final ILoggingEvent event) {
+        var idle = 0;
+        while (!ringBuffer.offer(event)) {
+            if (!running) {
+                droppedEvents.increment();
+                return;
+            }
+            final var sequence = ringBuffer.claimForMasking();
+            if (sequence != MaskingRingBuffer.NOTHING_TO_MASK) {
+                ringBuffer.complete(sequence, maskOrDrop(ringBuffer.get(sequence)));
+                ringBuffer.drain(this::write, this::flush);
+                idle = 0;
+            } else if (ringBuffer.drain(this::write, this::flush) == 0) {
+                idle = backOff(idle);
+            }
+        }
+    }
+
+    private void maskAndWrite() {
+        var idle = 0;
+        while (running || !ringBuffer.isEmpty()) {
+            final var sequence = ringBuffer.claimForMasking();
+            if (sequence != MaskingRingBuffer.NOTHING_TO_MASK) {
+                ringBuffer.complete(sequence, maskOrDrop(ringBuffer.get(sequence)));
+                ringBuffer.drain(this::write, this::flush);
+                idle = 0;
+            } else if (ringBuffer.drain(this::write, this::flush) > 0) {
+                idle = 0;
+            } else {
+                idle = backOff(idle);
+            }
+        }
+    }
+
+    private ILoggingEvent maskOrDrop(final ILoggingEvent event) {
+        try {
+            return mask(event);
+        } catch (final RuntimeException ex) {
+            droppedEvents.increment();
+            addError("Failed to mask event, it will not be written", ex);
+            return null;
+        }
+    }
+
+    private void write(final ILoggingEvent maskedEvent) {
+        if (!isNull(maskedEvent)) {
+            appenders.appendLoopOnAppenders(maskedEvent);
+        }
+    }
+
+    private void flush() {
+        if (isNull(flushedAppender)) {
+            return;
+        }
+        try {
+            final var outputStream = flushedAppender.getOutputStream();
+            if (!isNull(outputStream)) {
+                outputStream.flush();
+            }
+        } catch (final IOException ex) {
+            addError("Failed to flush appender named [%s]".formatted(flushedAppender.getName()), ex);
+        }
+    }
+
+    private OutputStreamAppender<ILoggingEvent> takeOverFlushing() {
+        final var appender = appenders.iteratorForAppenders().next();
+        if (!(appender instanceof OutputStreamAppender<ILoggingEvent> outputStreamAppender) || !outputStreamAppender.isImmediateFlush()) {
+            return null;
+        }
+        outputStreamAppender.setImmediateFlush(false);
+        return outputStreamAppender;
+    }
+
+    private ILoggingEvent mask(final ILoggingEvent event) {
+        return new MaskedLoggingEvent(event, layout.maskLogMessage(event.getFormattedMessage()),
+                maskMdc(event.getMDCPropertyMap()), maskKeyValuePairs(event.getKeyValuePairs()),
+                MaskedThrowableProxy.of(event.getThrowableProxy(), layout::maskLogMessage));
+    }
+
+    private Map<String, String> maskMdc(final Map<String, String> mdc) {
+        if (isNull(mdc) || mdc.isEmpty()) {
+            return mdc;
+        }
+        if (layout.isStructuredMasking()) {
+            return layout.maskMdc(mdc);
+        }
+        final var maskedMdc = new LinkedHashMap<String, String>(mdc.size());
+        mdc.forEach((key, value) -> maskedMdc.put(key, layout.maskLogMessage(value)));
+        return maskedMdc;
+    }
+
+    private List<KeyValuePair> maskKeyValuePairs(final List<KeyValuePair> keyValuePairs) {
+        if (isNull(keyValuePairs) || keyValuePairs.isEmpty()) {
+            return keyValuePairs;
+        }
+        if (layout.isStructuredMasking()) {
+            return layout.maskKeyValuePairs(keyValuePairs);
+        }
+        final var maskedKeyValuePairs = new ArrayList<KeyValuePair>(keyValuePairs.size());
+        for (final KeyValuePair keyValuePair : keyValuePairs) {
+            maskedKeyValuePairs.add(isNull(keyValuePair.value)
+                    ? keyValuePair
+                    : new KeyValuePair(keyValuePair.key, layout.maskLogMessage(keyValuePair.value.toString())));
+        }
+        return maskedKeyValuePairs;
+    }
+
+    private static int backOff(final int idle) {
+        if (idle < SPINS_BEFORE_PARKING) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << Math.min(idle - SPINS_BEFORE_PARKING, 5)));
+        }
+        return idle + 1;
+    }
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_BELOW_LEVEL,
+        MASK_SYNCHRONOUSLY
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.orczykowski.logback.obfuscator;
+
+final class BudgetedCharSequence implements CharSequence {
+    private final CharSequence input;
+    private final long budget;
+    private long steps;
+
+    BudgetedCharSequence(final CharSequence input, final long budget) {
+        this.input = input;
+        this.budget = budget;
+    }
+
+    @Override
+    public int length() {
+        return input.length();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (++steps > budget) {
+            throw BudgetExceededException.INSTANCE;
+        }
+        return input.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return input.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return input.toString();
+    }
+
+    static final class BudgetExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super("Match budget exceeded", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+final class FieldNameFinder {
+    static final long NOT_FOUND = -1L;
+    static final int INITIAL_STATE = 0;
+    private static final int ASCII_SIZE = 128;
+    private static final int OTHER_CHARACTER = 0;
+    private static final int[] NO_OFFSETS = new int[0];
+
+    private final int[] asciiCharacterClasses = new int[ASCII_SIZE];
+    private final char[] nonAsciiCharacters;
+    private final int[] nonAsciiCharacterClasses;
+    private final int[][] transitions;
+    private final int[][] candidateOffsets;
+    private final int longestCandidateOffset;
+
+    FieldNameFinder(final Collection<String> fieldNames, final Collection<Integer> prefixLengths) {
+        this(fieldNames, prefixLengths, false);
+    }
+
+    FieldNameFinder(final Collection<String> fieldNames, final Collection<Integer> prefixLengths, final boolean ignoreCase) {
+        final var nonAscii = new TreeMap<Character, Integer>();
+        var characterClass = 0;
+        for (final String fieldName : fieldNames) {
+            for (final char character : fieldName.toCharArray()) {
+                final var canonical = ignoreCase ? Character.toLowerCase(character) : character;
+                if (characterClass(canonical, nonAscii) != OTHER_CHARACTER) {
+                    continue;
+                }
+                assignCharacterClass(canonical, ++characterClass, nonAscii);
+                if (ignoreCase) {
+                    assignCharacterClass(Character.toUpperCase(canonical), characterClass, nonAscii);
+                    assignCharacterClass(Character.toTitleCase(canonical), characterClass, nonAscii);
+                }
+            }
+        }
+        this.nonAsciiCharacters = new char[nonAscii.size()];
+        this.nonAsciiCharacterClasses = new int[nonAscii.size()];
+        var index = 0;
+        for (final var entry : nonAscii.entrySet()) {
+            nonAsciiCharacters[index] = entry.getKey();
+            nonAsciiCharacterClasses[index++] = entry.getValue();
+        }
+        final var trie = buildTrie(fieldNames, characterClass + 1);
+        this.transitions = trie.transitions.toArray(new int[0][]);
+        this.candidateOffsets = buildAutomaton(trie, prefixLengths);
+        this.longestCandidateOffset = Arrays.stream(candidateOffsets)
+                .mapToInt(offsets -> offsets.length == 0 ? 0 : offsets[0])
+                .max()
+                .orElse(0);
+    }
+
+    long find(final CharSequence input, final int from, final int initialState) {
+        return find(input, from, input.length(), initialState);
+    }
+
+    long find(final CharSequence input, final int from, final int to, final int initialState) {
+        var state = initialState;
+        for (int i = from; i < to; i++) {
+            state = transitions[state][characterClass(input.charAt(i))];
+            if (candidateOffsets[state].length > 0) {
+                return ((long) state << Integer.SIZE) | (i + 1);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    static int state(final long hit) {
+        return (int) (hit >>> Integer.SIZE);
+    }
+
+    static int end(final long hit) {
+        return (int) hit;
+    }
+
+    int[] candidateOffsets(final long hit) {
+        return candidateOffsets[state(hit)];
+    }
+
+    int longestCandidateOffset() {
+        return longestCandidateOffset;
+    }
+
+    private int characterClass(final char character, final Map<Character, Integer> nonAscii) {
+        if (character < ASCII_SIZE) {
+            return asciiCharacterClasses[character];
+        }
+        return nonAscii.getOrDefault(character, OTHER_CHARACTER);
+    }
+
+    private void assignCharacterClass(final char character, final int characterClass, final Map<Character, Integer> nonAscii) {
+        if (characterClass(character, nonAscii) != OTHER_CHARACTER) {
+            return;
+        }
+        if (character < ASCII_SIZE) {
+            asciiCharacterClasses[character] = characterClass;
+        } else {
+            nonAscii.put(character, characterClass);
+        }
+    }
+
+    private int characterClass(final char character) {
+        if (character < ASCII_SIZE) {
+            return asciiCharacterClasses[character];
+        }
+        final var index = Arrays.binarySearch(nonAsciiCharacters, character);
+        return index < 0 ? OTHER_CHARACTER : nonAsciiCharacterClasses[index];
+    }
+
+    private Trie buildTrie(final Collection<String> fieldNames, final int alphabetSize) {
+        final var trie = new Trie(alphabetSize);
+        for (final String fieldName : fieldNames) {
+            var state = INITIAL_STATE;
+            for (final char character : fieldName.toCharArray()) {
+                final var characterClass = characterClass(character);
+                var next = trie.transitions.get(state)[characterClass];
+                if (next == INITIAL_STATE) {
+                    next = trie.addState();
+                    trie.transitions.get(state)[characterClass] = next;
+                }
+                state = next;
+            }
+            trie.nameLengths.get(state).add(fieldName.length());
+        }
+        return trie;
+    }
+
+    private static int[][] buildAutomaton(final Trie trie, final Collection<Integer> prefixLengths) {
+        final var failures = new int[trie.transitions.size()];
+        final var queue = new ArrayDeque<Integer>();
+        final var root = trie.transitions.get(INITIAL_STATE);
+        for (final int next : root) {
+            if (next != INITIAL_STATE) {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            trie.nameLengths.get(state).addAll(trie.nameLengths.get(failures[state]));
+            final var stateTransitions = trie.transitions.get(state);
+            final var failureTransitions = trie.transitions.get(failures[state]);
+            for (int characterClass = 0; characterClass < stateTransitions.length; characterClass++) {
+                final var next = stateTransitions[characterClass];
+                if (next == INITIAL_STATE) {
+                    stateTransitions[characterClass] = failureTransitions[characterClass];
+                } else {
+                    failures[next] = failureTransitions[characterClass];
+                    queue.add(next);
+                }
+            }
+        }
+        final var offsets = new int[trie.transitions.size()][];
+        for (int state = 0; state < offsets.length; state++) {
+            offsets[state] = toCandidateOffsets(trie.nameLengths.get(state), prefixLengths);
+        }
+        return offsets;
+    }
+
+    private static int[] toCandidateOffsets(final Set<Integer> nameLengths, final Collection<Integer> prefixLengths) {
+        if (nameLengths.isEmpty()) {
+            return NO_OFFSETS;
+        }
+        final var offsets = new TreeSet<Integer>();
+        nameLengths.forEach(nameLength -> prefixLengths.forEach(prefixLength -> offsets.add(nameLength + prefixLength)));
+        return offsets.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class Trie {
+        private final int alphabetSize;
+        private final List<int[]> transitions = new ArrayList<>();
+        private final List<Set<Integer>> nameLengths = new ArrayList<>();
+
+        private Trie(final int alphabetSize) {
+            this.alphabetSize = alphabetSize;
+            addState();
+        }
+
+        private int addState() {
+            transitions.add(new int[alphabetSize]);
+            nameLengths.add(new TreeSet<>());
+            return transitions.size() - 1;
+        }
+    }
+}
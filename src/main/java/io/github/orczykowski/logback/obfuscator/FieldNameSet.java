@@ -0,0 +1,79 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Collection;
+
+final class FieldNameSet {
+    private final String[] fieldNames;
+    private final int mask;
+    private final boolean ignoreCase;
+
+    FieldNameSet(final Collection<String> fieldNames) {
+        this(fieldNames, false);
+    }
+
+    FieldNameSet(final Collection<String> fieldNames, final boolean ignoreCase) {
+        final var capacity = Integer.highestOneBit(Math.max(fieldNames.size(), 1) * 4 - 1) << 1;
+        this.fieldNames = new String[capacity];
+        this.mask = capacity - 1;
+        this.ignoreCase = ignoreCase;
+        fieldNames.forEach(fieldName -> add(ignoreCase ? NormalizedFieldNames.lowerCase(fieldName) : fieldName));
+    }
+
+    boolean contains(final CharSequence input, final int start, final int end) {
+        return find(input, start, end) != null;
+    }
+
+    String find(final CharSequence input, final int start, final int end) {
+        var index = spread(hash(input, start, end)) & mask;
+        for (var fieldName = fieldNames[index]; fieldName != null; fieldName = fieldNames[index]) {
+            if (regionEquals(fieldName, input, start, end)) {
+                return fieldName;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    boolean contains(final String fieldName) {
+        return contains(fieldName, 0, fieldName.length());
+    }
+
+    private void add(final String fieldName) {
+        if (contains(fieldName)) {
+            return;
+        }
+        var index = spread(hash(fieldName, 0, fieldName.length())) & mask;
+        while (fieldNames[index] != null) {
+            index = (index + 1) & mask;
+        }
+        fieldNames[index] = fieldName;
+    }
+
+    private boolean regionEquals(final String fieldName, final CharSequence input, final int start, final int end) {
+        if (fieldName.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < fieldName.length(); i++) {
+            if (fieldName.charAt(i) != fold(input.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(final CharSequence input, final int start, final int end) {
+        var hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fold(input.charAt(i));
+        }
+        return hash;
+    }
+
+    private char fold(final char character) {
+        return ignoreCase ? Character.toLowerCase(character) : character;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
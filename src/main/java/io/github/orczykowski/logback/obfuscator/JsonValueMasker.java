@@ -0,0 +1,252 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import io.github.orczykowski.logback.obfuscator.AbstractSensitiveDataObfuscatorLayout.SensitiveValueMasker;
+
+import static java.util.Objects.isNull;
+
+final class JsonValueMasker {
+    static final int NOT_JSON = -1;
+    private static final int NO_VALUE = -1;
+    private static final int MAX_DEPTH = 64;
+    private static final String NULL_LITERAL = "null";
+
+    private final FieldNameSet fieldNames;
+    private final boolean maskStructures;
+    private final MaskingMetrics metrics;
+
+    JsonValueMasker(final FieldNameSet fieldNames, final boolean maskStructures, final MaskingMetrics metrics) {
+        this.fieldNames = fieldNames;
+        this.maskStructures = maskStructures;
+        this.metrics = metrics;
+    }
+
+    int mask(final CharSequence input, final int start, final int end, final SensitiveValueMasker masker, final StringBuilder target) {
+        final var mark = target.length();
+        final var tokenizer = new Tokenizer(input, start, end, masker, target);
+        if (input.charAt(start) != '{') {
+            return NOT_JSON;
+        }
+        if (tokenizer.value(Mode.PLAIN, 0)) {
+            target.append(input, tokenizer.copiedUntil, tokenizer.position);
+            return tokenizer.position;
+        }
+        if (tokenizer.openSensitiveValue != NO_VALUE) {
+            return tokenizer.maskRemainder();
+        }
+        if (tokenizer.copiedUntil > start) {
+            return tokenizer.copiedUntil;
+        }
+        target.setLength(mark);
+        return NOT_JSON;
+    }
+
+    private enum Mode {
+        PLAIN, SENSITIVE, SKIP
+    }
+
+    private final class Tokenizer {
+        private final CharSequence input;
+        private final int end;
+        private final SensitiveValueMasker masker;
+        private final StringBuilder target;
+        private int position;
+        private int copiedUntil;
+        private int openSensitiveValue = NO_VALUE;
+
+        private Tokenizer(final CharSequence input, final int start, final int end, final SensitiveValueMasker masker,
+                          final StringBuilder target) {
+            this.input = input;
+            this.end = end;
+            this.masker = masker;
+            this.target = target;
+            this.position = start;
+            this.copiedUntil = start;
+        }
+
+        private boolean value(final Mode mode, final int depth) {
+            skipWhitespaces();
+            if (position >= end || depth > MAX_DEPTH) {
+                return false;
+            }
+            final var valueStart = position;
+            final var enclosingSensitiveValue = openSensitiveValue;
+            if (mode == Mode.SENSITIVE) {
+                openSensitiveValue = valueStart;
+            }
+            final var parsed = switch (input.charAt(position)) {
+                case '{' -> structure(mode, depth, valueStart, true);
+                case '[' -> structure(mode, depth, valueStart, false);
+                case '"' -> string(mode, valueStart);
+                default -> literal(mode, valueStart);
+            };
+            if (parsed) {
+                openSensitiveValue = enclosingSensitiveValue;
+            }
+            return parsed;
+        }
+
+        private int maskRemainder() {
+            final var valueStart = input.charAt(openSensitiveValue) == '"' ? openSensitiveValue + 1 : openSensitiveValue;
+            final var maskFrom = Math.max(copiedUntil, valueStart);
+            target.append(input, copiedUntil, maskFrom);
+            masker.mask(target, input, maskFrom, end);
+            copiedUntil = end;
+            return end;
+        }
+
+        private boolean structure(final Mode mode, final int depth, final int valueStart, final boolean object) {
+            if (mode == Mode.SENSITIVE && maskStructures) {
+                if (!(object ? object(Mode.SKIP, depth) : array(Mode.SKIP, depth))) {
+                    return false;
+                }
+                mask(valueStart, position, true);
+                return true;
+            }
+            return object ? object(mode, depth) : array(mode, depth);
+        }
+
+        private boolean object(final Mode mode, final int depth) {
+            position++;
+            skipWhitespaces();
+            if (position < end && input.charAt(position) == '}') {
+                position++;
+                return true;
+            }
+            while (position < end && input.charAt(position) == '"') {
+                final var keyStart = position + 1;
+                if (!skipString()) {
+                    return false;
+                }
+                final var memberMode = memberMode(mode, keyStart, position - 1);
+                skipWhitespaces();
+                if (position >= end || input.charAt(position) != ':') {
+                    return false;
+                }
+                position++;
+                if (!value(memberMode, depth + 1)) {
+                    return false;
+                }
+                skipWhitespaces();
+                if (position >= end) {
+                    return false;
+                }
+                final var separator = input.charAt(position++);
+                if (separator == '}') {
+                    return true;
+                }
+                if (separator != ',') {
+                    return false;
+                }
+                skipWhitespaces();
+            }
+            return false;
+        }
+
+        private boolean array(final Mode mode, final int depth) {
+            position++;
+            skipWhitespaces();
+            if (position < end && input.charAt(position) == ']') {
+                position++;
+                return true;
+            }
+            while (value(mode, depth + 1)) {
+                skipWhitespaces();
+                if (position >= end) {
+                    return false;
+                }
+                final var separator = input.charAt(position++);
+                if (separator == ']') {
+                    return true;
+                }
+                if (separator != ',') {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private boolean string(final Mode mode, final int valueStart) {
+            if (!skipString()) {
+                return false;
+            }
+            if (mode == Mode.SENSITIVE) {
+                mask(valueStart + 1, position - 1, false);
+            }
+            return true;
+        }
+
+        private boolean literal(final Mode mode, final int valueStart) {
+            while (position < end && isLiteralCharacter(input.charAt(position))) {
+                position++;
+            }
+            if (position == valueStart) {
+                return false;
+            }
+            if (mode == Mode.SENSITIVE && !isNullLiteral(valueStart)) {
+                mask(valueStart, position, true);
+            }
+            return true;
+        }
+
+        private boolean skipString() {
+            position++;
+            while (position < end) {
+                final var character = input.charAt(position++);
+                if (character == '\\') {
+                    position++;
+                } else if (character == '"') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Mode memberMode(final Mode mode, final int keyStart, final int keyEnd) {
+            if (mode != Mode.PLAIN) {
+                return mode;
+            }
+            final var fieldName = fieldNames.find(input, keyStart, keyEnd);
+            if (isNull(fieldName)) {
+                return Mode.PLAIN;
+            }
+            if (!isNull(metrics)) {
+                metrics.recordMatch(fieldName, MaskingMetrics.JSON_MODE_TEMPLATE);
+            }
+            return Mode.SENSITIVE;
+        }
+
+        private void mask(final int valueStart, final int valueEnd, final boolean quote) {
+            target.append(input, copiedUntil, valueStart);
+            if (quote) {
+                target.append('"');
+            }
+            masker.mask(target, input, valueStart, valueEnd);
+            if (quote) {
+                target.append('"');
+            }
+            copiedUntil = valueEnd;
+        }
+
+        private void skipWhitespaces() {
+            while (position < end && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean isNullLiteral(final int valueStart) {
+            if (position - valueStart != NULL_LITERAL.length()) {
+                return false;
+            }
+            for (int i = 0; i < NULL_LITERAL.length(); i++) {
+                if (input.charAt(valueStart + i) != NULL_LITERAL.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isLiteralCharacter(final char character) {
+            return Character.isLetterOrDigit(character) || character == '-' || character == '+' || character == '.';
+        }
+    }
+}
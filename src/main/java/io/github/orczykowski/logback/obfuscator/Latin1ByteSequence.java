@@ -0,0 +1,41 @@
+package io.github.orczykowski.logback.obfuscator;
+
+final class Latin1ByteSequence implements CharSequence {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    Latin1ByteSequence(final byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    private Latin1ByteSequence(final byte[] bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return (char) (bytes[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return new Latin1ByteSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        final var chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
@@ -1,37 +1,31 @@
 package io.github.orczykowski.logback.obfuscator;
 
-import java.util.Collection;
-import java.util.Objects;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.stream.Stream;
-
 public class MaskSensitiveDataAsShortcutLayout extends AbstractSensitiveDataObfuscatorLayout {
+    private final SensitiveValueMasker masker = this::maskSensitiveData;
 
     protected String maskLogMessage(final String logMessage) {
-        var stringBuilder = new StringBuilder(logMessage);
-        sensitiveFieldNamePatterns.stream()
-                .map(pattern -> pattern.matcher(stringBuilder))
-                .map(Matcher::results)
-                .map(Stream::toList)
-                .flatMap(Collection::stream)
-                .forEach((match) -> maskSensitiveData(stringBuilder, match));
-        return stringBuilder.toString();
-    }
-    private String createShortcutFromValue(final String sensitiveData) {
-        if (Objects.isNull(sensitiveData) || sensitiveData.isBlank()) {
-            return sensitiveData;
-        }
-        return String.format("%s-%d-%s", sensitiveData.charAt(0), sensitiveData.length(), sensitiveData.charAt(sensitiveData.length() - 1));
+        return maskSensitiveValues(logMessage, masker);
     }
 
-    private void maskSensitiveData(final StringBuilder stringBuilder, final MatchResult match) {
-        final var sensitiveData = match.group(2);
-        final var maskedData = createShortcutFromValue(sensitiveData);
+    @Override
+    protected void maskLogMessage(final CharSequence logMessage, final StringBuilder target) {
+        maskSensitiveValues(logMessage, masker, target);
+    }
 
-        final var startIndex = match.start(2);
-        final var endIndex = match.end(2);
+    @Override
+    protected String maskSensitiveValue(final String value) {
+        return maskSensitiveValue(value, masker);
+    }
 
-        stringBuilder.replace(startIndex, endIndex, maskedData);
+    private void maskSensitiveData(final StringBuilder target, final CharSequence logMessage, final int valueStart, final int valueEnd) {
+        if (isBlank(logMessage, valueStart, valueEnd)) {
+            target.append(logMessage, valueStart, valueEnd);
+            return;
+        }
+        target.appendCodePoint(Character.codePointAt(logMessage, valueStart))
+                .append('-')
+                .append(valueEnd - valueStart)
+                .append('-')
+                .appendCodePoint(Character.codePointBefore(logMessage, valueEnd));
     }
 }
@@ -0,0 +1,131 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+
+import static java.util.Objects.isNull;
+
+public class MaskSensitiveDataAsTokenLayout extends AbstractSensitiveDataObfuscatorLayout {
+    private static final String DEFAULT_ALGORITHM = "HmacSHA256";
+    private static final int DEFAULT_TOKEN_LENGTH = 16;
+    private static final int MIN_TOKEN_LENGTH = 8;
+    private static final int DEFAULT_TOKEN_CACHE_SIZE = 256;
+    private static final int MAX_CACHEABLE_VALUE_LENGTH = 256;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final SensitiveValueMasker masker = this::maskSensitiveData;
+    private String algorithm = DEFAULT_ALGORITHM;
+    private byte[] key;
+    private int tokenLength = DEFAULT_TOKEN_LENGTH;
+    private int tokenCacheSize = DEFAULT_TOKEN_CACHE_SIZE;
+    private ThreadLocal<Mac> macs;
+    private MaskingResultCache tokenCache;
+
+    @Override
+    public void start() {
+        if (isNull(key)) {
+            addError("Key is required to tokenize sensitive values");
+            return;
+        }
+        final var keySpec = new SecretKeySpec(key, algorithm);
+        final int macLength;
+        try {
+            macLength = newMac(keySpec).getMacLength();
+        } catch (final IncorrectConfigurationException ex) {
+            addError(ex.getMessage());
+            return;
+        }
+        if (tokenLength > macLength * 2) {
+            addError("Token length cannot be greater than [%d] for [%s]".formatted(macLength * 2, algorithm));
+            return;
+        }
+        macs = ThreadLocal.withInitial(() -> newMac(keySpec));
+        tokenCache = tokenCacheSize > 0 ? new MaskingResultCache(tokenCacheSize, MAX_CACHEABLE_VALUE_LENGTH) : null;
+        super.start();
+    }
+
+    public void setKey(final String key) {
+        if (isNull(key) || key.isEmpty()) {
+            throw new IncorrectConfigurationException("Key cannot be empty");
+        }
+        this.key = key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void setAlgorithm(final String algorithm) {
+        try {
+            Mac.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IncorrectConfigurationException("Unknown MAC algorithm [%s]".formatted(algorithm));
+        }
+        this.algorithm = algorithm;
+    }
+
+    public void setTokenLength(final int tokenLength) {
+        if (tokenLength < MIN_TOKEN_LENGTH) {
+            throw new IncorrectConfigurationException("Token length cannot be less than [%d]".formatted(MIN_TOKEN_LENGTH));
+        }
+        this.tokenLength = tokenLength;
+    }
+
+    public void setTokenCacheSize(final int tokenCacheSize) {
+        if (tokenCacheSize < 0) {
+            throw new IncorrectConfigurationException("Token cache size cannot be negative");
+        }
+        this.tokenCacheSize = tokenCacheSize;
+    }
+
+    protected String maskLogMessage(final String logMessage) {
+        return maskSensitiveValues(logMessage, masker);
+    }
+
+    @Override
+    protected void maskLogMessage(final CharSequence logMessage, final StringBuilder target) {
+        maskSensitiveValues(logMessage, masker, target);
+    }
+
+    @Override
+    protected String maskSensitiveValue(final String value) {
+        return maskSensitiveValue(value, masker);
+    }
+
+    private void maskSensitiveData(final StringBuilder target, final CharSequence logMessage, final int valueStart, final int valueEnd) {
+        if (isBlank(logMessage, valueStart, valueEnd)) {
+            target.append(logMessage, valueStart, valueEnd);
+            return;
+        }
+        final var value = logMessage.subSequence(valueStart, valueEnd);
+        if (isNull(tokenCache) || !tokenCache.isCacheable(value)) {
+            target.append(token(value));
+            return;
+        }
+        var token = tokenCache.get(value);
+        if (isNull(token)) {
+            token = token(value);
+            tokenCache.put(value, token);
+        }
+        target.append(token);
+    }
+
+    private String token(final CharSequence value) {
+        final var digest = macs.get().doFinal(value.toString().getBytes(StandardCharsets.UTF_8));
+        final var token = new char[tokenLength];
+        for (int i = 0; i < tokenLength; i++) {
+            final var digestByte = digest[i >> 1];
+            token[i] = HEX_DIGITS[(i & 1) == 0 ? (digestByte >> 4) & 0x0F : digestByte & 0x0F];
+        }
+        return new String(token);
+    }
+
+    private Mac newMac(final SecretKeySpec keySpec) {
+        try {
+            final var mac = Mac.getInstance(algorithm);
+            mac.init(keySpec);
+            return mac;
+        } catch (final GeneralSecurityException ex) {
+            throw new IncorrectConfigurationException("Cannot initialize [%s] with the configured key".formatted(algorithm));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+import static java.util.Objects.isNull;
+
+public class MaskSensitiveDataEncoder extends LayoutWrappingEncoder<ILoggingEvent> {
+    private static final int MAX_RETAINED_BYTES = 256 * 1024;
+
+    private final ThreadLocalStringBuilder messageBuffer = new ThreadLocalStringBuilder();
+    private ThreadLocal<EncodingBuffer> encodingBuffers;
+
+    @Override
+    public void start() {
+        if (!(layout instanceof AbstractSensitiveDataObfuscatorLayout)) {
+            addWarn("Layout is not a sensitive data obfuscator layout, messages will be encoded without reusing buffers");
+        }
+        final var charset = isNull(getCharset()) ? Charset.defaultCharset() : getCharset();
+        encodingBuffers = ThreadLocal.withInitial(() -> new EncodingBuffer(charset));
+        super.start();
+    }
+
+    @Override
+    public byte[] encode(final ILoggingEvent event) {
+        if (!(layout instanceof AbstractSensitiveDataObfuscatorLayout obfuscatorLayout)) {
+            return super.encode(event);
+        }
+        final var message = messageBuffer.acquire();
+        obfuscatorLayout.doLayout(event, message);
+        return encodingBuffers.get().encode(message);
+    }
+
+    private static final class EncodingBuffer {
+        private final CharsetEncoder encoder;
+        private ByteBuffer bytes = ByteBuffer.allocate(0);
+
+        private EncodingBuffer(final Charset charset) {
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        private byte[] encode(final CharSequence message) {
+            final var requiredCapacity = (int) Math.ceil(message.length() * (double) encoder.maxBytesPerChar());
+            if (bytes.capacity() < requiredCapacity || bytes.capacity() > Math.max(MAX_RETAINED_BYTES, requiredCapacity)) {
+                bytes = ByteBuffer.allocate(requiredCapacity);
+            }
+            bytes.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(message), bytes, true);
+            encoder.flush(bytes);
+            return Arrays.copyOf(bytes.array(), bytes.position());
+        }
+    }
+}
@@ -1,10 +1,9 @@
 package io.github.orczykowski.logback.obfuscator;
 
 import java.util.Objects;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
 
 public class MaskSensitiveDataLayout extends AbstractSensitiveDataObfuscatorLayout {
+    private final SensitiveValueMasker masker = this::maskSensitiveData;
     private String mask = "********";
 
     public void addMask(final String mask) {
@@ -15,16 +14,21 @@ public class MaskSensitiveDataLayout extends AbstractSensitiveDataObfuscatorLayo
     }
 
     protected String maskLogMessage(final String logMessage) {
-        var maskedMessage = logMessage;
-        for (final Pattern pattern : sensitiveFieldNamePatterns) {
-            var matcher = pattern.matcher(maskedMessage);
-            maskedMessage = matcher.replaceAll(this::maskSensitiveData);
-        }
-        return maskedMessage;
+        return maskSensitiveValues(logMessage, masker);
+    }
+
+    @Override
+    protected void maskLogMessage(final CharSequence logMessage, final StringBuilder target) {
+        maskSensitiveValues(logMessage, masker, target);
+    }
+
+    @Override
+    protected String maskSensitiveValue(final String value) {
+        return mask;
     }
 
-    private String maskSensitiveData(final MatchResult matchResult) {
-        return matchResult.group(0).replace(matchResult.group(2), mask);
+    private void maskSensitiveData(final StringBuilder target, final CharSequence logMessage, final int valueStart, final int valueEnd) {
+        target.append(mask);
     }
 
 }
@@ -0,0 +1,295 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.EncoderBase;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static java.util.Objects.isNull;
+
+public class MaskSensitiveDataUtf8Encoder extends EncoderBase<ILoggingEvent> {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_BYTES = 256 * 1024;
+    private static final int ASCII_SIZE = 128;
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private final MaskSensitiveDataLayout rulesLayout = new MaskSensitiveDataLayout();
+    private final ThreadLocal<ByteBuilder> buffers = ThreadLocal.withInitial(ByteBuilder::new);
+    private Encoder<ILoggingEvent> encoder;
+    private String mask = "********";
+    private byte[] maskBytes;
+    private boolean shortcut;
+    private SensitiveDataMatcher sensitiveDataMatcher;
+
+    public MaskSensitiveDataUtf8Encoder() {
+        rulesLayout.setLinearTimeMatching(true);
+    }
+
+    @Override
+    public void setContext(final Context context) {
+        super.setContext(context);
+        rulesLayout.setContext(context);
+    }
+
+    @Override
+    public void start() {
+        if (isNull(encoder)) {
+            addError("No delegate encoder set for the sensitive data UTF-8 encoder");
+            return;
+        }
+        if (!isUtf8Compatible(encoder)) {
+            addError("The delegate encoder has to write UTF-8, masking is not possible on other encodings");
+            return;
+        }
+        if (!rulesLayout.effectivePatterns().stream().allMatch(MaskSensitiveDataUtf8Encoder::isAscii)
+                || !rulesLayout.effectiveFieldNames().stream().allMatch(MaskSensitiveDataUtf8Encoder::isAscii)) {
+            addError("Patterns and field names have to be ASCII to be matched on UTF-8 bytes");
+            return;
+        }
+        rulesLayout.warnAboutRegexpFieldNames(rulesLayout.effectiveFieldNames());
+        final var rules = rulesLayout.compiledRules();
+        if (!isNull(rules.jsonValueMasker()) || !isNull(rules.valueShapeDetector())) {
+            addError("JSON mode and value shapes are not supported on UTF-8 bytes, use MaskSensitiveDataLayout instead");
+            return;
+        }
+        sensitiveDataMatcher = rules.sensitiveDataMatcher();
+        maskBytes = mask.getBytes(StandardCharsets.UTF_8);
+        super.start();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return encoder.headerBytes();
+    }
+
+    @Override
+    public byte[] encode(final ILoggingEvent event) {
+        return maskSensitiveValues(encoder.encode(event));
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return encoder.footerBytes();
+    }
+
+    public void setEncoder(final Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void addPatternName(final String predefinedPatternName) {
+        rulesLayout.addPatternName(predefinedPatternName);
+    }
+
+    public void addCustomPattern(final String pattern) {
+        rulesLayout.addCustomPattern(pattern);
+    }
+
+    public void addFieldName(final String fieldName) {
+        rulesLayout.addFieldName(fieldName);
+    }
+
+    public void setPatternRegistry(final String registryName) {
+        rulesLayout.setPatternRegistry(registryName);
+    }
+
+    public void setNormalizedFieldNames(final boolean normalizedFieldNames) {
+        rulesLayout.setNormalizedFieldNames(normalizedFieldNames);
+    }
+
+    public void setJsonMode(final boolean jsonMode) {
+        rulesLayout.setJsonMode(jsonMode);
+    }
+
+    public void addValueShape(final String valueShapeName) {
+        rulesLayout.addValueShape(valueShapeName);
+    }
+
+    public void setMask(final String mask) {
+        if (isNull(mask)) {
+            throw new IncorrectConfigurationException("Mask cannot be set as null");
+        }
+        this.mask = mask;
+    }
+
+    public void setShortcut(final boolean shortcut) {
+        this.shortcut = shortcut;
+    }
+
+    byte[] maskSensitiveValues(final byte[] encodedLog) {
+        if (isNull(encodedLog) || isNull(sensitiveDataMatcher)) {
+            return encodedLog;
+        }
+        final var input = new Latin1ByteSequence(encodedLog);
+        if (!sensitiveDataMatcher.mayContainSensitiveData(input)) {
+            return encodedLog;
+        }
+        try (final var search = sensitiveDataMatcher.search(input)) {
+            ByteBuilder target = null;
+            var lastIndex = 0;
+            var searchFrom = 0;
+            while (search.find(searchFrom, encodedLog.length)) {
+                searchFrom = search.end();
+                if (search.valueStart() < 0) {
+                    continue;
+                }
+                final var valueStart = codePointStart(encodedLog, search.valueStart(), lastIndex);
+                final var valueEnd = codePointEnd(encodedLog, search.valueEnd());
+                if (isNull(target)) {
+                    target = buffers.get().reset(encodedLog.length);
+                }
+                target.append(encodedLog, lastIndex, valueStart);
+                mask(target, encodedLog, valueStart, valueEnd);
+                lastIndex = valueEnd;
+                searchFrom = Math.max(searchFrom, valueEnd);
+            }
+            if (isNull(target)) {
+                return encodedLog;
+            }
+            target.append(encodedLog, lastIndex, encodedLog.length);
+            return target.toByteArray();
+        }
+    }
+
+    private void mask(final ByteBuilder target, final byte[] encodedLog, final int valueStart, final int valueEnd) {
+        if (!shortcut) {
+            target.append(maskBytes, 0, maskBytes.length);
+            return;
+        }
+        if (isBlank(encodedLog, valueStart, valueEnd)) {
+            target.append(encodedLog, valueStart, valueEnd);
+            return;
+        }
+        final var lastCodePointStart = codePointStart(encodedLog, valueEnd - 1, valueStart);
+        target.append(encodedLog, valueStart, Math.min(valueEnd, valueStart + sequenceLength(encodedLog[valueStart])))
+                .append((byte) '-')
+                .appendAscii(Integer.toString(utf16Length(encodedLog, valueStart, valueEnd)))
+                .append((byte) '-')
+                .append(encodedLog, lastCodePointStart, valueEnd);
+    }
+
+    private static boolean isBlank(final byte[] encodedLog, final int valueStart, final int valueEnd) {
+        for (int i = valueStart; i < valueEnd; i += sequenceLength(encodedLog[i])) {
+            if (!Character.isWhitespace(codePointAt(encodedLog, i, valueEnd))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int utf16Length(final byte[] encodedLog, final int valueStart, final int valueEnd) {
+        var length = 0;
+        for (int i = valueStart; i < valueEnd; i += sequenceLength(encodedLog[i])) {
+            length += sequenceLength(encodedLog[i]) == 4 ? 2 : 1;
+        }
+        return length;
+    }
+
+    private static int codePointAt(final byte[] encodedLog, final int index, final int end) {
+        final var sequenceLength = sequenceLength(encodedLog[index]);
+        if (sequenceLength == 1) {
+            return encodedLog[index] & 0xFF;
+        }
+        if (index + sequenceLength > end) {
+            return REPLACEMENT_CHARACTER;
+        }
+        var codePoint = encodedLog[index] & (0xFF >>> (sequenceLength + 1));
+        for (int i = index + 1; i < index + sequenceLength; i++) {
+            codePoint = (codePoint << 6) | (encodedLog[i] & 0x3F);
+        }
+        return codePoint;
+    }
+
+    private static int sequenceLength(final byte leadByte) {
+        if ((leadByte & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((leadByte & 0xF0) == 0xE0) {
+            return 3;
+        }
+        if ((leadByte & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return 1;
+    }
+
+    private static int codePointStart(final byte[] encodedLog, final int index, final int lowerBound) {
+        var start = index;
+        while (start > lowerBound && isContinuation(encodedLog[start])) {
+            start--;
+        }
+        return start;
+    }
+
+    private static int codePointEnd(final byte[] encodedLog, final int index) {
+        var end = index;
+        while (end < encodedLog.length && isContinuation(encodedLog[end])) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isContinuation(final byte value) {
+        return (value & 0xC0) == 0x80;
+    }
+
+    private static boolean isAscii(final String str) {
+        return str.chars().allMatch(character -> character < ASCII_SIZE);
+    }
+
+    private static boolean isUtf8Compatible(final Encoder<ILoggingEvent> encoder) {
+        if (!(encoder instanceof LayoutWrappingEncoder<ILoggingEvent> layoutWrappingEncoder)) {
+            return true;
+        }
+        final var charset = isNull(layoutWrappingEncoder.getCharset()) ? Charset.defaultCharset() : layoutWrappingEncoder.getCharset();
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+    }
+
+    private static final class ByteBuilder {
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        private ByteBuilder reset(final int expectedSize) {
+            if (bytes.length > Math.max(MAX_RETAINED_BYTES, expectedSize)) {
+                bytes = new byte[Math.max(INITIAL_CAPACITY, expectedSize)];
+            }
+            size = 0;
+            return this;
+        }
+
+        private ByteBuilder append(final byte[] source, final int from, final int to) {
+            ensureCapacity(to - from);
+            System.arraycopy(source, from, bytes, size, to - from);
+            size += to - from;
+            return this;
+        }
+
+        private ByteBuilder append(final byte value) {
+            ensureCapacity(1);
+            bytes[size++] = value;
+            return this;
+        }
+
+        private ByteBuilder appendAscii(final String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[size++] = (byte) value.charAt(i);
+            }
+            return this;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensureCapacity(final int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+    }
+}
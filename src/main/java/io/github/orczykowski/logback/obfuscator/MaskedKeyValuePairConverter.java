@@ -0,0 +1,21 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.pattern.KeyValuePairConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import static java.util.Objects.isNull;
+
+public class MaskedKeyValuePairConverter extends KeyValuePairConverter implements SensitiveDataConverter {
+    private AbstractSensitiveDataObfuscatorLayout obfuscatorLayout;
+
+    @Override
+    public void setObfuscatorLayout(final AbstractSensitiveDataObfuscatorLayout obfuscatorLayout) {
+        this.obfuscatorLayout = obfuscatorLayout;
+    }
+
+    @Override
+    public String convert(final ILoggingEvent event) {
+        final var keyValuePairs = super.convert(event);
+        return isNull(obfuscatorLayout) || obfuscatorLayout.isStructuredMasking() ? keyValuePairs : obfuscatorLayout.maskLogMessage(keyValuePairs);
+    }
+}
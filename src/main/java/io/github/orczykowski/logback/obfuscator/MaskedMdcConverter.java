@@ -0,0 +1,26 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.pattern.MDCConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import static java.util.Objects.isNull;
+
+public class MaskedMdcConverter extends MDCConverter implements SensitiveDataConverter {
+    private AbstractSensitiveDataObfuscatorLayout obfuscatorLayout;
+
+    @Override
+    public void setObfuscatorLayout(final AbstractSensitiveDataObfuscatorLayout obfuscatorLayout) {
+        this.obfuscatorLayout = obfuscatorLayout;
+    }
+
+    @Override
+    public String convert(final ILoggingEvent event) {
+        if (isNull(obfuscatorLayout) || obfuscatorLayout.isStructuredMasking()) {
+            return super.convert(event);
+        }
+        final var mdc = event.getMDCPropertyMap();
+        final var maskedMdc = obfuscatorLayout.maskMdc(mdc, true);
+        return super.convert(maskedMdc == mdc ? event
+                : new MaskedLoggingEvent(event, event.getFormattedMessage(), maskedMdc, event.getKeyValuePairs(), event.getThrowableProxy()));
+    }
+}
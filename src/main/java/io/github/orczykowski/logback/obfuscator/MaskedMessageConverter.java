@@ -0,0 +1,21 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import static java.util.Objects.isNull;
+
+public class MaskedMessageConverter extends MessageConverter implements SensitiveDataConverter {
+    private AbstractSensitiveDataObfuscatorLayout obfuscatorLayout;
+
+    @Override
+    public void setObfuscatorLayout(final AbstractSensitiveDataObfuscatorLayout obfuscatorLayout) {
+        this.obfuscatorLayout = obfuscatorLayout;
+    }
+
+    @Override
+    public String convert(final ILoggingEvent event) {
+        final var message = super.convert(event);
+        return isNull(obfuscatorLayout) ? message : obfuscatorLayout.maskLogMessage(message);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.isNull;
+
+final class MaskedThrowableProxy implements IThrowableProxy {
+    private static final IThrowableProxy[] NO_SUPPRESSED = new IThrowableProxy[0];
+
+    private final IThrowableProxy throwableProxy;
+    private final String message;
+    private final IThrowableProxy cause;
+    private final IThrowableProxy[] suppressed;
+
+    private MaskedThrowableProxy(final IThrowableProxy throwableProxy, final UnaryOperator<String> masker) {
+        this.throwableProxy = throwableProxy;
+        this.message = isNull(throwableProxy.getMessage()) ? null : masker.apply(throwableProxy.getMessage());
+        this.cause = of(throwableProxy.getCause(), masker);
+        final var suppressedProxies = isNull(throwableProxy.getSuppressed()) ? NO_SUPPRESSED : throwableProxy.getSuppressed();
+        this.suppressed = new IThrowableProxy[suppressedProxies.length];
+        for (int i = 0; i < suppressed.length; i++) {
+            suppressed[i] = of(suppressedProxies[i], masker);
+        }
+    }
+
+    static IThrowableProxy of(final IThrowableProxy throwableProxy, final UnaryOperator<String> masker) {
+        return isNull(throwableProxy) ? null : new MaskedThrowableProxy(throwableProxy, masker);
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String getClassName() {
+        return throwableProxy.getClassName();
+    }
+
+    @Override
+    public StackTraceElementProxy[] getStackTraceElementProxyArray() {
+        return throwableProxy.getStackTraceElementProxyArray();
+    }
+
+    @Override
+    public int getCommonFrames() {
+        return throwableProxy.getCommonFrames();
+    }
+
+    @Override
+    public IThrowableProxy getCause() {
+        return cause;
+    }
+
+    @Override
+    public IThrowableProxy[] getSuppressed() {
+        return suppressed;
+    }
+
+    @Override
+    public boolean isCyclic() {
+        return throwableProxy.isCyclic();
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.boolex.EventEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Objects.isNull;
+
+public class MaskedThrowableProxyConverter extends ThrowableProxyConverter implements SensitiveDataConverter {
+    private static final int FRAME_CACHE_SIZE = 1024;
+
+    private final AtomicReferenceArray<Frame> frames = new AtomicReferenceArray<>(FRAME_CACHE_SIZE);
+    private final List<String> ignoredStackTraceLines = new ArrayList<>();
+    private AbstractSensitiveDataObfuscatorLayout obfuscatorLayout;
+    private int maxFrames = Integer.MAX_VALUE;
+
+    @Override
+    public void setObfuscatorLayout(final AbstractSensitiveDataObfuscatorLayout obfuscatorLayout) {
+        this.obfuscatorLayout = obfuscatorLayout;
+    }
+
+    @Override
+    public void start() {
+        maxFrames = maxFrames(getFirstOption());
+        final var options = getOptionList();
+        if (!isNull(options)) {
+            final var evaluators = (Map<?, ?>) getContext().getObject(CoreConstants.EVALUATOR_MAP);
+            for (final String option : options.subList(Math.min(1, options.size()), options.size())) {
+                if (isNull(evaluators) || !(evaluators.get(option) instanceof EventEvaluator<?>)) {
+                    ignoredStackTraceLines.add(option);
+                }
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    protected String throwableProxyToString(final IThrowableProxy throwableProxy) {
+        if (isNull(obfuscatorLayout)) {
+            return super.throwableProxyToString(throwableProxy);
+        }
+        final var stackTrace = new StringBuilder(BUILDER_CAPACITY);
+        append(stackTrace, null, ThrowableProxyUtil.REGULAR_EXCEPTION_INDENT, throwableProxy);
+        return stackTrace.toString();
+    }
+
+    private void append(final StringBuilder stackTrace, final String prefix, final int indent, final IThrowableProxy throwableProxy) {
+        if (isNull(throwableProxy)) {
+            return;
+        }
+        ThrowableProxyUtil.indent(stackTrace, indent - 1);
+        if (!isNull(prefix)) {
+            stackTrace.append(prefix);
+        }
+        appendFirstLine(stackTrace, throwableProxy);
+        stackTrace.append(CoreConstants.LINE_SEPARATOR);
+        appendFrames(stackTrace, indent, throwableProxy);
+        final var suppressed = throwableProxy.getSuppressed();
+        if (!isNull(suppressed)) {
+            for (final IThrowableProxy suppressedProxy : suppressed) {
+                append(stackTrace, CoreConstants.SUPPRESSED, indent + ThrowableProxyUtil.SUPPRESSED_EXCEPTION_INDENT, suppressedProxy);
+            }
+        }
+        append(stackTrace, CoreConstants.CAUSED_BY, indent, throwableProxy.getCause());
+    }
+
+    private void appendFirstLine(final StringBuilder stackTrace, final IThrowableProxy throwableProxy) {
+        final var message = throwableProxy.getMessage();
+        final var maskedMessage = isNull(message) ? null : obfuscatorLayout.maskLogMessage(message);
+        if (throwableProxy.isCyclic()) {
+            stackTrace.append("[CIRCULAR REFERENCE: ").append(throwableProxy.getClassName()).append(": ").append(maskedMessage).append(']');
+        } else {
+            stackTrace.append(throwableProxy.getClassName()).append(": ").append(maskedMessage);
+        }
+    }
+
+    private void appendFrames(final StringBuilder stackTrace, final int indent, final IThrowableProxy throwableProxy) {
+        final var stackFrames = throwableProxy.getStackTraceElementProxyArray();
+        final var commonFrames = throwableProxy.getCommonFrames();
+        final var unrestricted = maxFrames > stackFrames.length;
+        var lastFrame = unrestricted ? stackFrames.length : maxFrames;
+        if (commonFrames > 0 && unrestricted) {
+            lastFrame -= commonFrames;
+        }
+        var ignoredFrames = 0;
+        for (int i = 0; i < lastFrame; i++) {
+            final var stackFrame = stackFrames[i];
+            final var frameText = frameText(stackFrame);
+            if (isIgnored(frameText)) {
+                ignoredFrames++;
+                if (lastFrame < stackFrames.length) {
+                    lastFrame++;
+                }
+                continue;
+            }
+            ThrowableProxyUtil.indent(stackTrace, indent);
+            stackTrace.append(frameText);
+            extraData(stackTrace, stackFrame);
+            if (ignoredFrames > 0) {
+                appendIgnoredFrames(stackTrace, ignoredFrames);
+            }
+            ignoredFrames = 0;
+            stackTrace.append(CoreConstants.LINE_SEPARATOR);
+        }
+        if (ignoredFrames > 0) {
+            appendIgnoredFrames(stackTrace, ignoredFrames);
+            stackTrace.append(CoreConstants.LINE_SEPARATOR);
+        }
+        if (commonFrames > 0 && unrestricted) {
+            ThrowableProxyUtil.indent(stackTrace, indent);
+            stackTrace.append("... ").append(commonFrames).append(" common frames omitted").append(CoreConstants.LINE_SEPARATOR);
+        }
+    }
+
+    private String frameText(final StackTraceElementProxy stackFrame) {
+        final var element = stackFrame.getStackTraceElement();
+        final var hash = element.hashCode();
+        final var index = (hash ^ (hash >>> 16)) & (FRAME_CACHE_SIZE - 1);
+        final var frame = frames.get(index);
+        if (!isNull(frame) && frame.element.equals(element)) {
+            return frame.text;
+        }
+        final var text = stackFrame.getSTEAsString();
+        frames.set(index, new Frame(element, text));
+        return text;
+    }
+
+    private boolean isIgnored(final String frameText) {
+        for (final String ignoredStackTraceLine : ignoredStackTraceLines) {
+            if (frameText.contains(ignoredStackTraceLine)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendIgnoredFrames(final StringBuilder stackTrace, final int ignoredFrames) {
+        stackTrace.append(" [").append(ignoredFrames).append(" skipped]");
+    }
+
+    private int maxFrames(final String lengthOption) {
+        if (isNull(lengthOption) || "full".equalsIgnoreCase(lengthOption)) {
+            return Integer.MAX_VALUE;
+        }
+        if ("short".equalsIgnoreCase(lengthOption)) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(lengthOption);
+        } catch (final NumberFormatException ex) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private record Frame(StackTraceElement element, String text) {
+    }
+}
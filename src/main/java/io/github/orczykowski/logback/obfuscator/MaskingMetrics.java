@@ -0,0 +1,156 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MaskingMetrics implements MaskingMetricsMXBean {
+    static final String JSON_MODE_TEMPLATE = "JSON_MODE";
+    static final String VALUE_SHAPE_TEMPLATE = "VALUE_SHAPE";
+    static final long NOT_TIMED = Long.MIN_VALUE;
+    static final String[] NO_MATCHES = new String[0];
+    private static final int HISTOGRAM_BUCKETS = 40;
+
+    private final int timingSampleRate;
+    private final LongAdder messagesProcessed = new LongAdder();
+    private final LongAdder messagesWithMatches = new LongAdder();
+    private final LongAdder messagesOverBudget = new LongAdder();
+    private final LongAdder timedMessages = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+    private final LongAdder[] timingHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+    private final Map<String, LongAdder> matchesPerFieldName = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> matchesPerTemplate = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<String>> capturedMatches = new ThreadLocal<>();
+
+    MaskingMetrics(final int timingSampleRate) {
+        this.timingSampleRate = timingSampleRate;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            timingHistogram[i] = new LongAdder();
+        }
+    }
+
+    long startTiming() {
+        return timingSampleRate == 1 || ThreadLocalRandom.current().nextInt(timingSampleRate) == 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    void recordMessage(final boolean matched, final long startTime) {
+        messagesProcessed.increment();
+        if (matched) {
+            messagesWithMatches.increment();
+        }
+        if (startTime != NOT_TIMED) {
+            final var elapsedNanos = Math.max(0, System.nanoTime() - startTime);
+            timedMessages.increment();
+            sampledNanos.add(elapsedNanos);
+            timingHistogram[Math.min(HISTOGRAM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(elapsedNanos))].increment();
+        }
+    }
+
+    void recordBudgetExceeded() {
+        messagesOverBudget.increment();
+    }
+
+    void recordMatch(final String fieldName, final String template) {
+        countMatch(fieldName, template);
+        final var matches = capturedMatches.get();
+        if (matches != null) {
+            matches.add(fieldName);
+            matches.add(template);
+        }
+    }
+
+    void recordMatches(final String[] matches) {
+        for (int i = 0; i < matches.length; i += 2) {
+            countMatch(matches[i], matches[i + 1]);
+        }
+    }
+
+    void startCapturingMatches() {
+        capturedMatches.set(new ArrayList<>());
+    }
+
+    String[] stopCapturingMatches() {
+        final var matches = capturedMatches.get();
+        capturedMatches.remove();
+        return matches == null || matches.isEmpty() ? NO_MATCHES : matches.toArray(String[]::new);
+    }
+
+    private void countMatch(final String fieldName, final String template) {
+        matchesPerFieldName.computeIfAbsent(fieldName, name -> new LongAdder()).increment();
+        matchesPerTemplate.computeIfAbsent(template, name -> new LongAdder()).increment();
+    }
+
+    @Override
+    public long getMessagesProcessed() {
+        return messagesProcessed.sum();
+    }
+
+    @Override
+    public long getMessagesWithMatches() {
+        return messagesWithMatches.sum();
+    }
+
+    @Override
+    public long getMessagesOverBudget() {
+        return messagesOverBudget.sum();
+    }
+
+    @Override
+    public Map<String, Long> getMatchesPerFieldName() {
+        return snapshot(matchesPerFieldName);
+    }
+
+    @Override
+    public Map<String, Long> getMatchesPerTemplate() {
+        return snapshot(matchesPerTemplate);
+    }
+
+    @Override
+    public long getTimedMessages() {
+        return timedMessages.sum();
+    }
+
+    @Override
+    public long getSampledNanos() {
+        return sampledNanos.sum();
+    }
+
+    @Override
+    public long getEstimatedTotalNanos() {
+        final var timed = timedMessages.sum();
+        return timed == 0 ? 0 : (long) (sampledNanos.sum() * ((double) messagesProcessed.sum() / timed));
+    }
+
+    @Override
+    public long[] getTimingHistogram() {
+        final var histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = timingHistogram[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public void reset() {
+        messagesProcessed.reset();
+        messagesWithMatches.reset();
+        messagesOverBudget.reset();
+        timedMessages.reset();
+        sampledNanos.reset();
+        for (final LongAdder bucket : timingHistogram) {
+            bucket.reset();
+        }
+        matchesPerFieldName.clear();
+        matchesPerTemplate.clear();
+    }
+
+    private static Map<String, Long> snapshot(final Map<String, LongAdder> counters) {
+        final var snapshot = new TreeMap<String, Long>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return snapshot;
+    }
+}
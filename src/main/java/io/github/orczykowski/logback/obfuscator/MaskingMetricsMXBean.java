@@ -0,0 +1,26 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Map;
+
+public interface MaskingMetricsMXBean {
+
+    long getMessagesProcessed();
+
+    long getMessagesWithMatches();
+
+    long getMessagesOverBudget();
+
+    Map<String, Long> getMatchesPerFieldName();
+
+    Map<String, Long> getMatchesPerTemplate();
+
+    long getTimedMessages();
+
+    long getSampledNanos();
+
+    long getEstimatedTotalNanos();
+
+    long[] getTimingHistogram();
+
+    void reset();
+}
@@ -0,0 +1,74 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+final class MaskingResultCache {
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final int maxCacheableLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    MaskingResultCache(final int size, final int maxCacheableLength) {
+        final var capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1);
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.maxCacheableLength = maxCacheableLength;
+    }
+
+    boolean isCacheable(final CharSequence message) {
+        return message.length() <= maxCacheableLength;
+    }
+
+    String get(final CharSequence message) {
+        final var entry = lookup(message);
+        return entry == null ? null : entry.maskedMessage;
+    }
+
+    Entry lookup(final CharSequence message) {
+        final var hash = hash(message);
+        final var entry = entries.get(index(hash));
+        if (entry != null && entry.hash == hash && entry.message.contentEquals(message)) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(final CharSequence message, final String maskedMessage) {
+        put(message, maskedMessage, MaskingMetrics.NO_MATCHES);
+    }
+
+    void put(final CharSequence message, final String maskedMessage, final String[] matches) {
+        final var hash = hash(message);
+        entries.set(index(hash), new Entry(hash, message.toString(), maskedMessage, matches));
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    private int index(final int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int hash(final CharSequence message) {
+        if (message instanceof String string) {
+            return string.hashCode();
+        }
+        var hash = 0;
+        for (int i = 0; i < message.length(); i++) {
+            hash = 31 * hash + message.charAt(i);
+        }
+        return hash;
+    }
+
+    record Entry(int hash, String message, String maskedMessage, String[] matches) {
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+final class MaskingRingBuffer<E> {
+    static final long NOTHING_TO_MASK = -1L;
+    private static final int MIN_CAPACITY = 4;
+    private static final int PUBLISHED = 1;
+    private static final int MASKED = 2;
+
+    private final int capacity;
+    private final int indexMask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLong publishCursor = new AtomicLong();
+    private final AtomicLong maskCursor = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile long writeCursor;
+
+    MaskingRingBuffer(final int requestedCapacity) {
+        this.capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1);
+        this.indexMask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.elements = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean offer(final E element) {
+        while (true) {
+            final var sequence = publishCursor.get();
+            final var index = index(sequence);
+            final var slotSequence = sequences.get(index);
+            if (slotSequence < sequence) {
+                return false;
+            }
+            if (slotSequence == sequence && publishCursor.compareAndSet(sequence, sequence + 1)) {
+                elements.set(index, element);
+                sequences.set(index, sequence + PUBLISHED);
+                return true;
+            }
+        }
+    }
+
+    long claimForMasking() {
+        while (true) {
+            final var sequence = maskCursor.get();
+            final var slotSequence = sequences.get(index(sequence));
+            if (slotSequence < sequence + PUBLISHED) {
+                return NOTHING_TO_MASK;
+            }
+            if (slotSequence == sequence + PUBLISHED && maskCursor.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    E get(final long sequence) {
+        return elements.get(index(sequence));
+    }
+
+    void complete(final long sequence, final E maskedElement) {
+        final var index = index(sequence);
+        elements.set(index, maskedElement);
+        sequences.set(index, sequence + MASKED);
+    }
+
+    int drain(final Consumer<E> writer, final Runnable batchEnd) {
+        var written = 0;
+        while (isReadyToWrite() && writeLock.tryLock()) {
+            final var batchStart = written;
+            try {
+                while (isReadyToWrite()) {
+                    final var sequence = writeCursor;
+                    final var index = index(sequence);
+                    final var element = elements.getAndSet(index, null);
+                    try {
+                        writer.accept(element);
+                    } finally {
+                        sequences.set(index, sequence + capacity);
+                        writeCursor = sequence + 1;
+                    }
+                    written++;
+                }
+                if (written > batchStart) {
+                    batchEnd.run();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return written;
+    }
+
+    boolean isEmpty() {
+        return writeCursor == publishCursor.get();
+    }
+
+    int size() {
+        return (int) (publishCursor.get() - writeCursor);
+    }
+
+    private boolean isReadyToWrite() {
+        final var sequence = writeCursor;
+        return sequences.get(index(sequence)) == sequence + MASKED;
+    }
+
+    private int index(final long sequence) {
+        return (int) sequence & indexMask;
+    }
+}
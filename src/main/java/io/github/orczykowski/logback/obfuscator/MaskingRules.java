@@ -0,0 +1,5 @@
+package io.github.orczykowski.logback.obfuscator;
+
+record MaskingRules(SensitiveDataMatcher sensitiveDataMatcher, FieldNameSet literalFieldNames,
+                    JsonValueMasker jsonValueMasker, ValueShapeDetector valueShapeDetector, MaskingResultCache resultCache) {
+}
@@ -0,0 +1,18 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.List;
+
+public interface MaskingRulesMXBean {
+
+    List<String> getPatterns();
+
+    List<String> getFieldNames();
+
+    long getReloads();
+
+    long getFailedReloads();
+
+    void replaceRules(List<String> patternNames, List<String> customPatterns, List<String> fieldNames);
+
+    void reloadFromFile();
+}
@@ -0,0 +1,127 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+
+final class MaskingRulesReloader implements MaskingRulesMXBean, Runnable {
+    private static final char COMMENT = '#';
+
+    private final AbstractSensitiveDataObfuscatorLayout layout;
+    private final Path rulesFile;
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+    private volatile FileTime lastModified;
+
+    MaskingRulesReloader(final AbstractSensitiveDataObfuscatorLayout layout, final Path rulesFile) {
+        this.layout = layout;
+        this.rulesFile = rulesFile;
+    }
+
+    @Override
+    public void run() {
+        if (isNull(rulesFile)) {
+            return;
+        }
+        try {
+            final var modified = Files.getLastModifiedTime(rulesFile);
+            if (!modified.equals(lastModified)) {
+                reloadFromFile();
+            }
+        } catch (final IOException ex) {
+            failedReloads.increment();
+            layout.addError("Failed to check masking rules file [%s]".formatted(rulesFile), ex);
+        }
+    }
+
+    @Override
+    public synchronized void reloadFromFile() {
+        if (isNull(rulesFile)) {
+            throw new IncorrectConfigurationException("There is no masking rules file configured");
+        }
+        try {
+            final var modified = Files.getLastModifiedTime(rulesFile);
+            final var patterns = new ArrayList<String>();
+            final var fieldNames = new ArrayList<String>();
+            parse(Files.readAllLines(rulesFile, StandardCharsets.UTF_8), patterns, fieldNames);
+            apply(patterns, fieldNames);
+            lastModified = modified;
+        } catch (final IOException | RuntimeException ex) {
+            failedReloads.increment();
+            layout.addError("Failed to reload masking rules from [%s], previous rules are kept".formatted(rulesFile), ex);
+        }
+    }
+
+    @Override
+    public synchronized void replaceRules(final List<String> patternNames, final List<String> customPatterns, final List<String> fieldNames) {
+        final var patterns = new ArrayList<String>();
+        try {
+            nullToEmpty(patternNames).forEach(patternName -> patterns.add(AbstractSensitiveDataObfuscatorLayout.predefinedPattern(patternName)));
+            nullToEmpty(customPatterns).forEach(customPattern -> patterns.add(AbstractSensitiveDataObfuscatorLayout.customPattern(customPattern)));
+            apply(patterns, nullToEmpty(fieldNames));
+        } catch (final RuntimeException ex) {
+            failedReloads.increment();
+            layout.addError("Failed to replace masking rules, previous rules are kept", ex);
+            throw new IllegalArgumentException(ex.getMessage());
+        }
+    }
+
+    @Override
+    public List<String> getPatterns() {
+        return layout.configuredPatterns();
+    }
+
+    @Override
+    public List<String> getFieldNames() {
+        return layout.configuredFieldNames();
+    }
+
+    @Override
+    public long getReloads() {
+        return reloads.sum();
+    }
+
+    @Override
+    public long getFailedReloads() {
+        return failedReloads.sum();
+    }
+
+    private void apply(final List<String> patterns, final List<String> fieldNames) {
+        layout.replaceRules(patterns, fieldNames);
+        reloads.increment();
+        layout.addInfo("Masking rules replaced with %d patterns and %d field names".formatted(patterns.size(), fieldNames.size()));
+    }
+
+    private static void parse(final List<String> lines, final List<String> patterns, final List<String> fieldNames) {
+        for (final String line : lines) {
+            final var trimmedLine = line.strip();
+            if (trimmedLine.isEmpty() || trimmedLine.charAt(0) == COMMENT) {
+                continue;
+            }
+            final var separator = trimmedLine.indexOf('=');
+            if (separator < 0) {
+                throw new IncorrectConfigurationException("Expected key=value but was [%s]".formatted(trimmedLine));
+            }
+            final var value = trimmedLine.substring(separator + 1).strip();
+            switch (trimmedLine.substring(0, separator).strip()) {
+                case "patternName" -> patterns.add(AbstractSensitiveDataObfuscatorLayout.predefinedPattern(value));
+                case "customPattern" -> patterns.add(AbstractSensitiveDataObfuscatorLayout.customPattern(value));
+                case "fieldName" -> fieldNames.add(value);
+                default -> throw new IncorrectConfigurationException("""
+                        Unknown key [%s]. You can use the following keys [patternName,customPattern,fieldName]"""
+                        .formatted(trimmedLine.substring(0, separator).strip()));
+            }
+        }
+    }
+
+    private static List<String> nullToEmpty(final List<String> values) {
+        return isNull(values) ? List.of() : values;
+    }
+}
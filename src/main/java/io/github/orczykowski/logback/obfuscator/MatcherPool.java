@@ -0,0 +1,62 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class MatcherPool {
+    private static final int PROBES = 4;
+    private static final int MAX_SIZE = 256;
+    private static final String NO_INPUT = "";
+
+    private final Pattern pattern;
+    private final AtomicReferenceArray<Matcher> matchers;
+    private final int mask;
+
+    MatcherPool(final Pattern pattern, final int size) {
+        final var capacity = Integer.highestOneBit(Math.min(Math.max(size, 1), MAX_SIZE) * 2 - 1);
+        this.pattern = pattern;
+        this.matchers = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    Matcher acquire(final CharSequence input) {
+        final var start = index();
+        for (int i = 0; i < PROBES; i++) {
+            final var index = (start + i) & mask;
+            if (matchers.get(index) == null) {
+                continue;
+            }
+            final var matcher = matchers.getAndSet(index, null);
+            if (matcher != null) {
+                return matcher.reset(input);
+            }
+        }
+        return pattern.matcher(input);
+    }
+
+    void release(final Matcher matcher) {
+        matcher.reset(NO_INPUT);
+        final var start = index();
+        for (int i = 0; i < PROBES; i++) {
+            if (matchers.compareAndSet((start + i) & mask, null, matcher)) {
+                return;
+            }
+        }
+    }
+
+    int pooled() {
+        var pooled = 0;
+        for (int i = 0; i < matchers.length(); i++) {
+            if (matchers.get(i) != null) {
+                pooled++;
+            }
+        }
+        return pooled;
+    }
+
+    private int index() {
+        final var hash = System.identityHashCode(Thread.currentThread());
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+final class NormalizedFieldNames {
+    private static final List<String> SEPARATORS = List.of("", "_", "-");
+
+    private NormalizedFieldNames() {
+    }
+
+    static Set<String> variants(final Collection<String> fieldNames) {
+        final var variants = new LinkedHashSet<String>();
+        for (final String fieldName : fieldNames) {
+            final var words = words(fieldName);
+            if (words.size() < 2) {
+                variants.add(lowerCase(fieldName));
+                continue;
+            }
+            SEPARATORS.forEach(separator -> variants.add(String.join(separator, words)));
+        }
+        return variants;
+    }
+
+    static List<String> words(final String fieldName) {
+        final var words = new ArrayList<String>();
+        final var word = new StringBuilder();
+        for (int i = 0; i < fieldName.length(); i++) {
+            final var character = fieldName.charAt(i);
+            if (character == '_' || character == '-') {
+                addWord(words, word);
+                continue;
+            }
+            if (Character.isUpperCase(character) && !word.isEmpty() && startsWord(fieldName, i)) {
+                addWord(words, word);
+            }
+            word.append(Character.toLowerCase(character));
+        }
+        addWord(words, word);
+        return words;
+    }
+
+    static String lowerCase(final CharSequence fieldName) {
+        final var lowerCase = new char[fieldName.length()];
+        for (int i = 0; i < lowerCase.length; i++) {
+            lowerCase[i] = Character.toLowerCase(fieldName.charAt(i));
+        }
+        return new String(lowerCase);
+    }
+
+    private static boolean startsWord(final String fieldName, final int index) {
+        final var afterUpperCase = Character.isUpperCase(fieldName.charAt(index - 1));
+        final var beforeLowerCase = index + 1 < fieldName.length() && Character.isLowerCase(fieldName.charAt(index + 1));
+        return !afterUpperCase || beforeLowerCase;
+    }
+
+    private static void addWord(final List<String> words, final StringBuilder word) {
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+            word.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+
+final class ParallelMasking {
+    private static final int MIN_SEGMENT_LENGTH = 4096;
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    ParallelMasking(final int parallelism, final int threshold) {
+        final var threadNumber = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            final var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            worker.setName("ParallelMasking-Worker-%d".formatted(threadNumber.getAndIncrement()));
+            return worker;
+        }, null, false);
+        this.threshold = threshold;
+    }
+
+    boolean accepts(final CharSequence logMessage) {
+        return logMessage.length() >= threshold;
+    }
+
+    void mask(final CharSequence logMessage, final SegmentMasker segmentMasker, final StringBuilder target) {
+        final var segments = segments(logMessage);
+        pool.invoke(new MaskSegments(logMessage, segmentMasker, segments, 0, segments.length));
+        var maskedUntil = 0;
+        for (final Segment segment : segments) {
+            if (maskedUntil >= segment.to) {
+                continue;
+            }
+            if (maskedUntil != segment.from) {
+                segment.mask(logMessage, segmentMasker, maskedUntil);
+            } else if (!isNull(segment.failure)) {
+                throw segment.failure;
+            }
+            target.append(segment.masked);
+            maskedUntil = segment.maskedUntil;
+        }
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private Segment[] segments(final CharSequence logMessage) {
+        final var length = logMessage.length();
+        final var segmentLength = Math.max(MIN_SEGMENT_LENGTH, length / (pool.getParallelism() * SEGMENTS_PER_THREAD));
+        var boundaries = new int[SEGMENTS_PER_THREAD * pool.getParallelism() + 2];
+        var count = 1;
+        var next = segmentLength;
+        while (next < length) {
+            final var boundary = boundaryAfter(logMessage, next, Math.min(length, next + segmentLength / 2));
+            if (boundary >= length) {
+                break;
+            }
+            if (count == boundaries.length - 1) {
+                boundaries = Arrays.copyOf(boundaries, boundaries.length * 2);
+            }
+            boundaries[count++] = boundary;
+            next = boundary + segmentLength;
+        }
+        boundaries[count] = length;
+        final var segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(boundaries[i], boundaries[i + 1]);
+        }
+        return segments;
+    }
+
+    private static int boundaryAfter(final CharSequence logMessage, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (logMessage.charAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        for (int i = Math.max(1, from); i < to; i++) {
+            final var previous = logMessage.charAt(i - 1);
+            if (logMessage.charAt(i) == ',' && (previous == '}' || previous == ']')) {
+                return i + 1;
+            }
+        }
+        return from;
+    }
+
+    interface SegmentMasker {
+
+        int mask(CharSequence logMessage, int from, int to, StringBuilder target);
+    }
+
+    private static final class Segment {
+        private final int from;
+        private final int to;
+        private final StringBuilder masked;
+        private int maskedUntil;
+        private RuntimeException failure;
+
+        private Segment(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+            this.masked = new StringBuilder(to - from);
+        }
+
+        private void mask(final CharSequence logMessage, final SegmentMasker segmentMasker, final int maskFrom) {
+            masked.setLength(0);
+            maskedUntil = segmentMasker.mask(logMessage, maskFrom, to, masked);
+        }
+    }
+
+    private static final class MaskSegments extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence logMessage;
+        private final SegmentMasker segmentMasker;
+        private final Segment[] segments;
+        private final int from;
+        private final int to;
+
+        private MaskSegments(final CharSequence logMessage, final SegmentMasker segmentMasker, final Segment[] segments,
+                             final int from, final int to) {
+            this.logMessage = logMessage;
+            this.segmentMasker = segmentMasker;
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                final var segment = segments[from];
+                try {
+                    segment.mask(logMessage, segmentMasker, segment.from);
+                } catch (final RuntimeException ex) {
+                    segment.failure = ex;
+                }
+                return;
+            }
+            final var middle = (from + to) >>> 1;
+            invokeAll(new MaskSegments(logMessage, segmentMasker, segments, from, middle),
+                    new MaskSegments(logMessage, segmentMasker, segments, middle, to));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+final class ResolvingSearch implements SensitiveValueSearch {
+    private static final Comparator<Span> BY_START = Comparator.comparingInt(Span::start);
+
+    private final SensitiveValueSearch search;
+    private final AbstractSensitiveDataObfuscatorLayout.OverlapPolicy overlapPolicy;
+    private final List<Span> cluster = new ArrayList<>();
+    private final ArrayDeque<Span> resolved = new ArrayDeque<>();
+    private int resolvedTo;
+    private int exhaustedFrom = Integer.MAX_VALUE;
+    private int exhaustedStartLimit;
+    private int exhaustedTo;
+    private Span current;
+
+    ResolvingSearch(final SensitiveValueSearch search, final AbstractSensitiveDataObfuscatorLayout.OverlapPolicy overlapPolicy) {
+        this.search = search;
+        this.overlapPolicy = overlapPolicy;
+    }
+
+    @Override
+    public boolean findStartingBefore(final int from, final int startLimit, final int to) {
+        while (!resolved.isEmpty() && resolved.peek().start() < from) {
+            resolved.poll();
+        }
+        if (!resolved.isEmpty() && to <= resolvedTo && resolved.peek().start() < startLimit && resolved.peek().end() <= to) {
+            current = resolved.poll();
+            return true;
+        }
+        resolved.clear();
+        final var first = nextSpan(from, startLimit, to);
+        if (isNull(first)) {
+            current = null;
+            return false;
+        }
+        var clusterEnd = addToCluster(first, to);
+        var searchFrom = first.start() + 1;
+        for (var span = nextSpan(searchFrom, clusterEnd, to); !isNull(span); span = nextSpan(searchFrom, clusterEnd, to)) {
+            clusterEnd = Math.max(clusterEnd, addToCluster(span, to));
+            searchFrom = span.start() + 1;
+        }
+        resolveCluster();
+        resolvedTo = to;
+        current = resolved.poll();
+        return true;
+    }
+
+    @Override
+    public int start() {
+        return current.start();
+    }
+
+    @Override
+    public int end() {
+        return current.end();
+    }
+
+    @Override
+    public int nameStart() {
+        return current.nameStart();
+    }
+
+    @Override
+    public int nameEnd() {
+        return current.nameEnd();
+    }
+
+    @Override
+    public int valueStart() {
+        return current.valueStart();
+    }
+
+    @Override
+    public int valueEnd() {
+        return current.valueEnd();
+    }
+
+    @Override
+    public String template() {
+        return current.template();
+    }
+
+    @Override
+    public int templateIndex() {
+        return current.templateIndex();
+    }
+
+    @Override
+    public int templateCount() {
+        return search.templateCount();
+    }
+
+    @Override
+    public boolean matchesTemplateAt(final int start, final int templateIndex, final int to) {
+        throw new UnsupportedOperationException("Matches of a single template are not resolved");
+    }
+
+    @Override
+    public void close() {
+        search.close();
+    }
+
+    private Span nextSpan(final int from, final int startLimit, final int to) {
+        if (from >= exhaustedFrom && startLimit <= exhaustedStartLimit && to <= exhaustedTo) {
+            return null;
+        }
+        var searchFrom = from;
+        while (search.findStartingBefore(searchFrom, startLimit, to)) {
+            if (search.valueStart() >= 0) {
+                return currentSpan();
+            }
+            searchFrom = Math.max(search.end(), search.start() + 1);
+        }
+        exhaustedFrom = from;
+        exhaustedStartLimit = startLimit;
+        exhaustedTo = to;
+        return null;
+    }
+
+    private int addToCluster(final Span span, final int to) {
+        cluster.add(span);
+        var clusterEnd = span.end();
+        for (int templateIndex = span.templateIndex() + 1; templateIndex < search.templateCount(); templateIndex++) {
+            if (search.matchesTemplateAt(span.start(), templateIndex, to) && search.valueStart() >= 0) {
+                final var alternative = currentSpan();
+                cluster.add(alternative);
+                clusterEnd = Math.max(clusterEnd, alternative.end());
+            }
+        }
+        return clusterEnd;
+    }
+
+    private Span currentSpan() {
+        return new Span(search.start(), search.end(), search.nameStart(), search.nameEnd(), search.valueStart(),
+                search.valueEnd(), search.templateIndex(), search.template());
+    }
+
+    private void resolveCluster() {
+        final var winners = new ArrayList<Span>(cluster.size());
+        while (!cluster.isEmpty()) {
+            var winner = cluster.get(0);
+            for (final Span span : cluster) {
+                if (isPreferred(span, winner)) {
+                    winner = span;
+                }
+            }
+            winners.add(winner);
+            final var chosen = winner;
+            cluster.removeIf(span -> span.start() < chosen.end() && chosen.start() < span.end());
+        }
+        winners.sort(BY_START);
+        resolved.addAll(winners);
+    }
+
+    private boolean isPreferred(final Span span, final Span winner) {
+        return switch (overlapPolicy) {
+            case OUTERMOST -> span.start() < winner.start() || (span.start() == winner.start() && span.end() > winner.end());
+            case FIRST -> span.templateIndex() < winner.templateIndex()
+                    || (span.templateIndex() == winner.templateIndex() && span.start() < winner.start());
+            case LONGEST -> span.end() - span.start() > winner.end() - winner.start()
+                    || (span.end() - span.start() == winner.end() - winner.start() && span.start() < winner.start());
+        };
+    }
+
+    private record Span(int start, int end, int nameStart, int nameEnd, int valueStart, int valueEnd, int templateIndex,
+                        String template) {
+    }
+}
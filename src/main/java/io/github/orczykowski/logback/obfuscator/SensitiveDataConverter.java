@@ -0,0 +1,6 @@
+package io.github.orczykowski.logback.obfuscator;
+
+interface SensitiveDataConverter {
+
+    void setObfuscatorLayout(AbstractSensitiveDataObfuscatorLayout obfuscatorLayout);
+}
@@ -0,0 +1,415 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+final class SensitiveDataMatcher {
+    private static final int NOT_MATCHED = -1;
+    private static final int MATCHER_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final Pattern pattern;
+    private final List<String> templates;
+    private final int[] propertyNameGroups;
+    private final FieldNameFinder fieldNameFinder;
+    private final boolean anchoredSearch;
+    private final List<TemplateShape> templateShapes;
+    private final FieldNameSet fieldNames;
+    private final AnchorScanner anchorScanner;
+    private final List<Pattern> templatePatterns;
+    private final MatcherPool matcherPool;
+
+    SensitiveDataMatcher(final Pattern pattern, final List<String> templates, final int[] propertyNameGroups,
+                         final FieldNameFinder fieldNameFinder, final boolean anchoredSearch) {
+        this(pattern, templates, propertyNameGroups, fieldNameFinder, anchoredSearch, null, null, null, null);
+    }
+
+    SensitiveDataMatcher(final Pattern pattern, final List<String> templates, final int[] propertyNameGroups,
+                         final FieldNameFinder fieldNameFinder, final boolean anchoredSearch,
+                         final List<TemplateShape> templateShapes, final FieldNameSet fieldNames, final AnchorScanner anchorScanner,
+                         final List<Pattern> templatePatterns) {
+        this.pattern = pattern;
+        this.templates = templates;
+        this.propertyNameGroups = propertyNameGroups;
+        this.fieldNameFinder = fieldNameFinder;
+        this.anchoredSearch = anchoredSearch;
+        this.templateShapes = templateShapes;
+        this.fieldNames = fieldNames;
+        this.anchorScanner = anchorScanner;
+        this.templatePatterns = templatePatterns;
+        this.matcherPool = new MatcherPool(pattern, MATCHER_POOL_SIZE);
+    }
+
+    boolean mayContainSensitiveData(final CharSequence input) {
+        return mayContainSensitiveData(input, 0, input.length());
+    }
+
+    boolean mayContainSensitiveData(final CharSequence input, final int from, final int to) {
+        if (!isNull(anchorScanner)) {
+            return anchorScanner.containsName(input, from, to);
+        }
+        return isNull(fieldNameFinder)
+                || fieldNameFinder.find(input, from, to, FieldNameFinder.INITIAL_STATE) != FieldNameFinder.NOT_FOUND;
+    }
+
+    int safeScanEnd(final CharSequence input, final int from, final int to) {
+        if (isNull(fieldNameFinder)) {
+            return to;
+        }
+        var matchedUntil = from;
+        try (final var search = search(input)) {
+            while (search.find(matchedUntil, to)) {
+                matchedUntil = search.end();
+            }
+        }
+        final var hit = fieldNameFinder.find(input, matchedUntil, to, FieldNameFinder.INITIAL_STATE);
+        if (hit == FieldNameFinder.NOT_FOUND) {
+            return to;
+        }
+        return Math.max(matchedUntil, FieldNameFinder.end(hit) - fieldNameFinder.candidateOffsets(hit)[0]);
+    }
+
+    int size() {
+        return pattern.pattern().length();
+    }
+
+    boolean isLinear() {
+        return !isNull(templateShapes);
+    }
+
+    boolean isAnchorScanning() {
+        return !isNull(anchorScanner);
+    }
+
+    int pooledMatchers() {
+        return matcherPool.pooled();
+    }
+
+    SensitiveValueSearch search(final CharSequence input) {
+        return isLinear() ? new LinearSearch(input) : new RegexSearch(input);
+    }
+
+    private final class RegexSearch implements SensitiveValueSearch {
+        private final CharSequence input;
+        private final Matcher matcher;
+        private final AnchorScanner.Cursor anchorCursor;
+        private Matcher[] templateMatchers;
+        private Matcher current;
+        private int nameGroup;
+        private int templateIndex = NOT_MATCHED;
+        private boolean closed;
+
+        private RegexSearch(final CharSequence input) {
+            this.input = input;
+            this.anchorCursor = isNull(anchorScanner) ? null : anchorScanner.cursor(input);
+            this.matcher = matcherPool.acquire(input)
+                    .useTransparentBounds(true)
+                    .useAnchoringBounds(false);
+            this.current = matcher;
+        }
+
+        @Override
+        public boolean findStartingBefore(final int from, final int startLimit, final int to) {
+            final var found = findMatch(from, startLimit, to);
+            current = matcher;
+            templateIndex = found ? matchedTemplate() : NOT_MATCHED;
+            nameGroup = found && templateIndex != NOT_MATCHED ? propertyNameGroups[templateIndex] : 0;
+            return found;
+        }
+
+        @Override
+        public boolean matchesTemplateAt(final int start, final int templateIndex, final int to) {
+            if (isNull(templatePatterns)) {
+                return false;
+            }
+            if (isNull(templateMatchers)) {
+                templateMatchers = new Matcher[templatePatterns.size()];
+            }
+            if (isNull(templateMatchers[templateIndex])) {
+                templateMatchers[templateIndex] = templatePatterns.get(templateIndex).matcher(input)
+                        .useTransparentBounds(true)
+                        .useAnchoringBounds(false);
+            }
+            final var templateMatcher = templateMatchers[templateIndex];
+            if (!templateMatcher.region(start, to).lookingAt()) {
+                return false;
+            }
+            current = templateMatcher;
+            this.templateIndex = templateIndex;
+            nameGroup = 1;
+            return true;
+        }
+
+        @Override
+        public int start() {
+            return current.start();
+        }
+
+        @Override
+        public int end() {
+            return current.end();
+        }
+
+        @Override
+        public int nameStart() {
+            return current.start(nameGroup);
+        }
+
+        @Override
+        public int nameEnd() {
+            return current.end(nameGroup);
+        }
+
+        @Override
+        public int valueStart() {
+            return templateIndex == NOT_MATCHED ? NOT_MATCHED : current.start(nameGroup + 1);
+        }
+
+        @Override
+        public int valueEnd() {
+            return current.end(nameGroup + 1);
+        }
+
+        @Override
+        public String template() {
+            return templates.get(templateIndex);
+        }
+
+        @Override
+        public int templateIndex() {
+            return templateIndex;
+        }
+
+        @Override
+        public int templateCount() {
+            return templates.size();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                matcherPool.release(matcher);
+            }
+        }
+
+        private boolean findMatch(final int from, final int startLimit, final int to) {
+            if (!isNull(fieldNameFinder) && !anchoredSearch
+                    && fieldNameFinder.find(input, from, to, FieldNameFinder.INITIAL_STATE) == FieldNameFinder.NOT_FOUND) {
+                return false;
+            }
+            if (isNull(fieldNameFinder) || !anchoredSearch) {
+                return startLimit >= to ? matcher.region(from, to).find() : lookingAtBefore(from, startLimit, to);
+            }
+            if (!isNull(anchorCursor)) {
+                return findAtAnchors(from, startLimit, to);
+            }
+            final var scanEnd = Math.min(to, startLimit + fieldNameFinder.longestCandidateOffset());
+            var hit = fieldNameFinder.find(input, from, scanEnd, FieldNameFinder.INITIAL_STATE);
+            while (hit != FieldNameFinder.NOT_FOUND) {
+                final var nameEnd = FieldNameFinder.end(hit);
+                for (final int offset : fieldNameFinder.candidateOffsets(hit)) {
+                    final var candidateStart = nameEnd - offset;
+                    if (candidateStart >= from && candidateStart < startLimit && matcher.region(candidateStart, to).lookingAt()) {
+                        return true;
+                    }
+                }
+                hit = fieldNameFinder.find(input, nameEnd, scanEnd, FieldNameFinder.state(hit));
+            }
+            return false;
+        }
+
+        private boolean lookingAtBefore(final int from, final int startLimit, final int to) {
+            for (int candidateStart = from; candidateStart < startLimit; candidateStart++) {
+                if (matcher.region(candidateStart, to).lookingAt()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean findAtAnchors(final int from, final int startLimit, final int to) {
+            final var scanEnd = Math.min(to, startLimit + anchorScanner.longestCandidate());
+            var nameEnd = anchorCursor.find(from, scanEnd);
+            while (nameEnd != AnchorScanner.NOT_FOUND) {
+                for (final int nameLength : anchorScanner.nameLengths()) {
+                    final var nameStart = nameEnd - nameLength;
+                    if (nameStart < from || !anchorScanner.isName(input, nameStart, nameEnd)) {
+                        continue;
+                    }
+                    for (final int prefixLength : anchorScanner.prefixLengths()) {
+                        final var candidateStart = nameStart - prefixLength;
+                        if (candidateStart >= from && candidateStart < startLimit
+                                && matcher.region(candidateStart, to).lookingAt()) {
+                            return true;
+                        }
+                    }
+                }
+                nameEnd = anchorCursor.find(from, nameEnd + 1, scanEnd);
+            }
+            return false;
+        }
+
+        private int matchedTemplate() {
+            for (int i = 0; i < propertyNameGroups.length; i++) {
+                if (matcher.start(propertyNameGroups[i]) != NOT_MATCHED) {
+                    return i;
+                }
+            }
+            return NOT_MATCHED;
+        }
+    }
+
+    private final class LinearSearch implements SensitiveValueSearch {
+        private final CharSequence input;
+        private final int[] failedScanStarts;
+        private final int[] failedScanEnds;
+        private final AnchorScanner.Cursor anchorCursor;
+        private TemplateShape matchedShape;
+        private int matchedTemplateIndex;
+        private int nameStart;
+        private int nameEnd;
+        private int valueStart;
+        private int valueEnd;
+
+        private LinearSearch(final CharSequence input) {
+            this.input = input;
+            this.failedScanStarts = new int[templateShapes.size()];
+            this.failedScanEnds = new int[templateShapes.size()];
+            Arrays.fill(failedScanStarts, NOT_MATCHED);
+            Arrays.fill(failedScanEnds, NOT_MATCHED);
+            this.anchorCursor = isNull(anchorScanner) ? null : anchorScanner.cursor(input);
+        }
+
+        @Override
+        public boolean findStartingBefore(final int from, final int startLimit, final int to) {
+            if (!isNull(anchorCursor)) {
+                return findAtAnchors(from, startLimit, to);
+            }
+            final var scanEnd = Math.min(to, startLimit + fieldNameFinder.longestCandidateOffset());
+            var hit = fieldNameFinder.find(input, from, scanEnd, FieldNameFinder.INITIAL_STATE);
+            while (hit != FieldNameFinder.NOT_FOUND) {
+                final var hitEnd = FieldNameFinder.end(hit);
+                for (final int offset : fieldNameFinder.candidateOffsets(hit)) {
+                    final var candidateStart = hitEnd - offset;
+                    if (candidateStart >= from && candidateStart < startLimit && matchesAt(candidateStart, hitEnd, to)) {
+                        return true;
+                    }
+                }
+                hit = fieldNameFinder.find(input, hitEnd, scanEnd, FieldNameFinder.state(hit));
+            }
+            matchedShape = null;
+            return false;
+        }
+
+        @Override
+        public int start() {
+            return nameStart - matchedShape.prefixLength();
+        }
+
+        @Override
+        public int end() {
+            return valueEnd + matchedShape.suffixLength();
+        }
+
+        private boolean findAtAnchors(final int from, final int startLimit, final int to) {
+            final var scanEnd = Math.min(to, startLimit + anchorScanner.longestCandidate());
+            var nameEnd = anchorCursor.find(from, scanEnd);
+            while (nameEnd != AnchorScanner.NOT_FOUND) {
+                for (final int nameLength : anchorScanner.nameLengths()) {
+                    for (final int prefixLength : anchorScanner.prefixLengths()) {
+                        final var candidateStart = nameEnd - nameLength - prefixLength;
+                        if (candidateStart >= from && candidateStart < startLimit && matchesAt(candidateStart, nameEnd, to)) {
+                            return true;
+                        }
+                    }
+                }
+                nameEnd = anchorCursor.find(from, nameEnd + 1, scanEnd);
+            }
+            matchedShape = null;
+            return false;
+        }
+
+        @Override
+        public int nameStart() {
+            return nameStart;
+        }
+
+        @Override
+        public int nameEnd() {
+            return nameEnd;
+        }
+
+        @Override
+        public int valueStart() {
+            return isNull(matchedShape) ? NOT_MATCHED : valueStart;
+        }
+
+        @Override
+        public int valueEnd() {
+            return valueEnd;
+        }
+
+        @Override
+        public String template() {
+            return matchedShape.template();
+        }
+
+        @Override
+        public int templateIndex() {
+            return matchedTemplateIndex;
+        }
+
+        @Override
+        public int templateCount() {
+            return templateShapes.size();
+        }
+
+        @Override
+        public boolean matchesTemplateAt(final int start, final int templateIndex, final int to) {
+            return !isNull(matchedShape) && start + templateShapes.get(templateIndex).prefixLength() == nameStart
+                    && matchesShapeAt(templateIndex, start, nameEnd, to);
+        }
+
+        private boolean matchesAt(final int candidateStart, final int hitEnd, final int to) {
+            for (int i = 0; i < templateShapes.size(); i++) {
+                if (matchesShapeAt(i, candidateStart, hitEnd, to)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matchesShapeAt(final int shapeIndex, final int candidateStart, final int hitEnd, final int to) {
+            final var shape = templateShapes.get(shapeIndex);
+            final var shapeNameStart = candidateStart + shape.prefixLength();
+            if (shapeNameStart >= hitEnd || !shape.matchesPrefix(input, candidateStart)
+                    || !fieldNames.contains(input, shapeNameStart, hitEnd)) {
+                return false;
+            }
+            final var shapeValueStart = shape.valueStart(input, hitEnd, to);
+            if (shapeValueStart == TemplateShape.NO_MATCH
+                    || (failedScanStarts[shapeIndex] <= shapeValueStart && shapeValueStart <= failedScanEnds[shapeIndex])) {
+                return false;
+            }
+            final var shapeValueEnd = shape.valueEnd(input, shapeValueStart, to);
+            if (!shape.isValue(input, shapeValueStart, shapeValueEnd, to)) {
+                if (shapeValueEnd + shape.suffixLength() <= to) {
+                    failedScanStarts[shapeIndex] = shapeValueStart;
+                    failedScanEnds[shapeIndex] = shapeValueEnd;
+                }
+                return false;
+            }
+            matchedShape = shape;
+            matchedTemplateIndex = shapeIndex;
+            nameStart = shapeNameStart;
+            nameEnd = hitEnd;
+            valueStart = shapeValueStart;
+            valueEnd = shapeValueEnd;
+            return true;
+        }
+    }
+}
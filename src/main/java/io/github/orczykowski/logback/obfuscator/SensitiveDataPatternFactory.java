@@ -1,17 +1,209 @@
 package io.github.orczykowski.logback.obfuscator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
 
 class SensitiveDataPatternFactory {
     static final String PROPERTY_NAME_MARKER = "[PROPERTY_NAME]";
+    static final int UNBOUNDED_PREFIX = -1;
+    private static final String REGEXP_METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final Pattern INLINE_FLAGS = Pattern.compile("\\(\\?[a-zA-Z-]");
 
     Pattern create(final String propertyName, final String regexpTemplate) {
         final var stringRegexp = regexpTemplate.replace(PROPERTY_NAME_MARKER, "(%s)".formatted(propertyName));
         return Pattern.compile(stringRegexp);
     }
 
+    SensitiveDataMatcher create(final Collection<String> propertyNames, final Collection<String> regexpTemplates,
+                                final boolean linearTimeMatching) {
+        return create(propertyNames, regexpTemplates, linearTimeMatching, false);
+    }
+
+    SensitiveDataMatcher create(final Collection<String> propertyNames, final Collection<String> regexpTemplates,
+                                final boolean linearTimeMatching, final boolean anchorScanning) {
+        return create(propertyNames, regexpTemplates, linearTimeMatching, anchorScanning, false);
+    }
+
+    SensitiveDataMatcher create(final Collection<String> configuredPropertyNames, final Collection<String> regexpTemplates,
+                                final boolean linearTimeMatching, final boolean anchorScanning, final boolean normalizedPropertyNames) {
+        final Collection<String> propertyNames = normalizedPropertyNames
+                ? NormalizedFieldNames.variants(configuredPropertyNames) : configuredPropertyNames;
+        final var propertyNameGroup = normalizedPropertyNames ? "(?iu:%s)" : "(?:%s)";
+        final var propertyNamesAlternation = propertyNames.stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .map(propertyName -> propertyNameGroup.formatted(Pattern.quote(propertyName)))
+                .collect(Collectors.joining("|"));
+        final var combinedRegexp = new StringBuilder();
+        final var propertyNameGroups = new int[regexpTemplates.size()];
+        final var templatePatterns = new ArrayList<Pattern>(regexpTemplates.size());
+        var templateIndex = 0;
+        var groupOffset = 0;
+        for (final String regexpTemplate : regexpTemplates) {
+            final var pattern = create(propertyNamesAlternation, regexpTemplate);
+            templatePatterns.add(pattern);
+            if (templateIndex > 0) {
+                combinedRegexp.append('|');
+            }
+            combinedRegexp.append("(?:").append(pattern.pattern()).append(')');
+            propertyNameGroups[templateIndex++] = groupOffset + 1;
+            groupOffset += pattern.matcher("").groupCount();
+        }
+        final var prefixLengths = regexpTemplates.stream()
+                .map(SensitiveDataPatternFactory::literalPrefixLength)
+                .collect(Collectors.toSet());
+        final var anchoredSearch = !prefixLengths.contains(UNBOUNDED_PREFIX);
+        final var fieldNameFinder = createFieldNameFinder(propertyNames, regexpTemplates, anchoredSearch ? prefixLengths : Set.of(0),
+                normalizedPropertyNames);
+        final var templateShapes = linearTimeMatching && anchoredSearch && !isNull(fieldNameFinder)
+                ? createTemplateShapes(regexpTemplates) : null;
+        final var anchorScanner = anchorScanning && anchoredSearch && !isNull(fieldNameFinder)
+                ? createAnchorScanner(propertyNames, regexpTemplates, prefixLengths, normalizedPropertyNames) : null;
+        return new SensitiveDataMatcher(Pattern.compile(combinedRegexp.toString()), List.copyOf(regexpTemplates), propertyNameGroups,
+                fieldNameFinder, anchoredSearch, templateShapes,
+                isNull(templateShapes) ? null : new FieldNameSet(propertyNames, normalizedPropertyNames),
+                anchorScanner, List.copyOf(templatePatterns));
+    }
+
+    private static AnchorScanner createAnchorScanner(final Collection<String> propertyNames, final Collection<String> regexpTemplates,
+                                                     final Set<Integer> prefixLengths, final boolean ignoreCase) {
+        final var anchors = new LinkedHashSet<Character>();
+        for (final String regexpTemplate : regexpTemplates) {
+            final var anchor = anchorAfterPropertyName(regexpTemplate);
+            if (isNull(anchor)) {
+                return null;
+            }
+            anchors.add(anchor);
+        }
+        return new AnchorScanner(propertyNames, anchors, prefixLengths, ignoreCase);
+    }
+
+    private static Character anchorAfterPropertyName(final String regexpTemplate) {
+        final var afterMarker = regexpTemplate.indexOf(PROPERTY_NAME_MARKER) + PROPERTY_NAME_MARKER.length();
+        if (afterMarker >= regexpTemplate.length()) {
+            return null;
+        }
+        final var character = regexpTemplate.charAt(afterMarker);
+        if (character == '\\') {
+            final var escaped = afterMarker + 1 < regexpTemplate.length() ? regexpTemplate.charAt(afterMarker + 1) : 'a';
+            return Character.isLetterOrDigit(escaped) ? null : escaped;
+        }
+        return REGEXP_METACHARACTERS.indexOf(character) >= 0 ? null : character;
+    }
+
+    private static List<TemplateShape> createTemplateShapes(final Collection<String> regexpTemplates) {
+        final var templateShapes = regexpTemplates.stream()
+                .map(TemplateShape::of)
+                .toList();
+        return templateShapes.stream().anyMatch(Objects::isNull) ? null : templateShapes;
+    }
+
+    private FieldNameFinder createFieldNameFinder(final Collection<String> propertyNames, final Collection<String> regexpTemplates,
+                                                  final Set<Integer> prefixLengths, final boolean ignoreCase) {
+        if (propertyNames.stream().anyMatch(SensitiveDataPatternFactory::isNotLiteral)
+                || !regexpTemplates.stream().allMatch(SensitiveDataPatternFactory::requiresPropertyName)) {
+            return null;
+        }
+        return new FieldNameFinder(propertyNames, prefixLengths, ignoreCase);
+    }
+
+    private static int literalPrefixLength(final String regexpTemplate) {
+        final var prefix = regexpTemplate.substring(0, regexpTemplate.indexOf(PROPERTY_NAME_MARKER));
+        var length = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final var character = prefix.charAt(i);
+            if (character == '\\') {
+                if (i + 1 == prefix.length() || Character.isLetterOrDigit(prefix.charAt(i + 1))) {
+                    return UNBOUNDED_PREFIX;
+                }
+                i++;
+            } else if (REGEXP_METACHARACTERS.indexOf(character) >= 0) {
+                return UNBOUNDED_PREFIX;
+            }
+            length++;
+        }
+        return length;
+    }
+
+    static boolean containsRegexpMetacharacters(final String propertyName) {
+        return propertyName.chars().anyMatch(character -> REGEXP_METACHARACTERS.indexOf(character) >= 0);
+    }
+
+    private static boolean isNotLiteral(final String propertyName) {
+        return propertyName.isEmpty();
+    }
+
+    static boolean overlap(final String firstTemplate, final String secondTemplate) {
+        if (literalPrefixLength(firstTemplate) == UNBOUNDED_PREFIX || literalPrefixLength(secondTemplate) == UNBOUNDED_PREFIX) {
+            return false;
+        }
+        final var firstMarker = firstTemplate.indexOf(PROPERTY_NAME_MARKER);
+        final var secondMarker = secondTemplate.indexOf(PROPERTY_NAME_MARKER);
+        if (!literal(firstTemplate, 0, firstMarker).equals(literal(secondTemplate, 0, secondMarker))) {
+            return false;
+        }
+        final var firstSuffix = literal(firstTemplate, firstMarker + PROPERTY_NAME_MARKER.length(), firstTemplate.length());
+        final var secondSuffix = literal(secondTemplate, secondMarker + PROPERTY_NAME_MARKER.length(), secondTemplate.length());
+        return !firstSuffix.isEmpty() && !secondSuffix.isEmpty()
+                && (firstSuffix.startsWith(secondSuffix) || secondSuffix.startsWith(firstSuffix));
+    }
+
+    private static String literal(final String regexp, final int from, final int to) {
+        final var literal = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            final var character = regexp.charAt(i);
+            if (character == '\\' && i + 1 < to && !Character.isLetterOrDigit(regexp.charAt(i + 1))) {
+                literal.append(regexp.charAt(++i));
+            } else if (REGEXP_METACHARACTERS.indexOf(character) >= 0) {
+                if ("?*{".indexOf(character) >= 0 && !literal.isEmpty()) {
+                    literal.setLength(literal.length() - 1);
+                }
+                break;
+            } else {
+                literal.append(character);
+            }
+        }
+        return literal.toString();
+    }
+
+    private static boolean requiresPropertyName(final String regexpTemplate) {
+        final var afterMarker = regexpTemplate.indexOf(PROPERTY_NAME_MARKER) + PROPERTY_NAME_MARKER.length();
+        final var optionalMarker = afterMarker < regexpTemplate.length() && "?*{".indexOf(regexpTemplate.charAt(afterMarker)) >= 0;
+        return !optionalMarker && !INLINE_FLAGS.matcher(regexpTemplate).find() && !containsTopLevelAlternation(regexpTemplate);
+    }
+
+    private static boolean containsTopLevelAlternation(final String regexpTemplate) {
+        final var template = regexpTemplate.replace(PROPERTY_NAME_MARKER, "");
+        var depth = 0;
+        var inCharacterClass = false;
+        for (int i = 0; i < template.length(); i++) {
+            final var character = template.charAt(i);
+            if (character == '\\') {
+                i++;
+            } else if (inCharacterClass) {
+                inCharacterClass = character != ']';
+            } else if (character == '[') {
+                inCharacterClass = true;
+            } else if (character == '(') {
+                depth++;
+            } else if (character == ')') {
+                depth--;
+            } else if (character == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     enum SensitiveValuePatterns {
         JSON("\"[PROPERTY_NAME]\":\"([^\"]*)\""),
         EQUAL_AND_SQUARE_BRACKETS("[PROPERTY_NAME]=\\[([^\\]^\\[]+)\\]"),
@@ -0,0 +1,112 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.PropertyDefinerBase;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Objects.isNull;
+
+public class SensitiveDataPatternRegistry extends PropertyDefinerBase {
+    static final String CONTEXT_KEY_PREFIX = "SENSITIVE_DATA_PATTERN_REGISTRY:";
+    private static final SensitiveDataPatternFactory patternFactory = new SensitiveDataPatternFactory();
+
+    private final Set<String> patterns = new LinkedHashSet<>();
+    private final Set<String> fieldNames = new LinkedHashSet<>();
+    private String name;
+    private volatile boolean frozen;
+    private final AtomicReferenceArray<SensitiveDataMatcher> matchers = new AtomicReferenceArray<>(8);
+
+    @Override
+    public String getPropertyValue() {
+        if (!frozen) {
+            register();
+        }
+        return name;
+    }
+
+    public void setName(final String name) {
+        ensureNotFrozen();
+        this.name = name;
+    }
+
+    public void addPatternName(final String predefinedPatternName) {
+        ensureNotFrozen();
+        patterns.add(AbstractSensitiveDataObfuscatorLayout.predefinedPattern(predefinedPatternName));
+    }
+
+    public void addCustomPattern(final String pattern) {
+        ensureNotFrozen();
+        patterns.add(AbstractSensitiveDataObfuscatorLayout.customPattern(pattern));
+    }
+
+    public void addFieldName(final String fieldName) {
+        ensureNotFrozen();
+        fieldNames.add(fieldName);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Set<String> patterns() {
+        return Collections.unmodifiableSet(patterns);
+    }
+
+    Set<String> fieldNames() {
+        return Collections.unmodifiableSet(fieldNames);
+    }
+
+    SensitiveDataMatcher matcher(final boolean linearTimeMatching, final boolean anchorScanning) {
+        return matcher(linearTimeMatching, anchorScanning, false);
+    }
+
+    SensitiveDataMatcher matcher(final boolean linearTimeMatching, final boolean anchorScanning, final boolean normalizedFieldNames) {
+        if (patterns.isEmpty() || fieldNames.isEmpty()) {
+            return null;
+        }
+        final var variant = (linearTimeMatching ? 1 : 0) | (anchorScanning ? 2 : 0) | (normalizedFieldNames ? 4 : 0);
+        final var matcher = matchers.get(variant);
+        return isNull(matcher) ? compile(variant, linearTimeMatching, anchorScanning, normalizedFieldNames) : matcher;
+    }
+
+    static SensitiveDataPatternRegistry lookup(final Context context, final String name) {
+        final var registry = isNull(context) || isNull(name) ? null : context.getObject(CONTEXT_KEY_PREFIX + name);
+        if (registry instanceof SensitiveDataPatternRegistry patternRegistry) {
+            return patternRegistry;
+        }
+        throw new IncorrectConfigurationException("""
+                There is no pattern registry named [%s].
+                Make sure the registry is defined before the layout which references it.""".formatted(name));
+    }
+
+    private synchronized SensitiveDataMatcher compile(final int variant, final boolean linearTimeMatching, final boolean anchorScanning,
+                                                      final boolean normalizedFieldNames) {
+        var matcher = matchers.get(variant);
+        if (isNull(matcher)) {
+            matcher = patternFactory.create(fieldNames, patterns, linearTimeMatching, anchorScanning, normalizedFieldNames);
+            matchers.set(variant, matcher);
+        }
+        return matcher;
+    }
+
+    private synchronized void register() {
+        if (frozen) {
+            return;
+        }
+        if (isNull(name) || name.isBlank()) {
+            throw new IncorrectConfigurationException("Pattern registry has to have a name");
+        }
+        frozen = true;
+        getContext().putObject(CONTEXT_KEY_PREFIX + name, this);
+    }
+
+    private void ensureNotFrozen() {
+        if (frozen) {
+            throw new IncorrectConfigurationException("Pattern registry [%s] is immutable once defined".formatted(name));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.orczykowski.logback.obfuscator;
+
+interface SensitiveValueSearch extends AutoCloseable {
+
+    default boolean find(final int from, final int to) {
+        return findStartingBefore(from, to, to);
+    }
+
+    boolean findStartingBefore(int from, int startLimit, int to);
+
+    int start();
+
+    int end();
+
+    int nameStart();
+
+    int nameEnd();
+
+    int valueStart();
+
+    int valueEnd();
+
+    String template();
+
+    int templateIndex();
+
+    int templateCount();
+
+    boolean matchesTemplateAt(int start, int templateIndex, int to);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,268 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Arrays;
+import java.util.List;
+
+enum SensitiveValueShapes {
+    CARD_NUMBER {
+        @Override
+        boolean mayStartWith(final char character) {
+            return character >= '2' && character <= '6';
+        }
+
+        @Override
+        int end(final CharSequence input, final int start, final int to) {
+            var digits = 0;
+            var evenDoubledSum = 0;
+            var oddDoubledSum = 0;
+            var separator = NO_SEPARATOR;
+            var i = start;
+            while (i < to) {
+                final var character = input.charAt(i);
+                if (isDigit(character)) {
+                    if (++digits > MAX_CARD_DIGITS) {
+                        return NO_MATCH;
+                    }
+                    final var digit = character - '0';
+                    final var doubled = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+                    evenDoubledSum += (digits & 1) == 1 ? doubled : digit;
+                    oddDoubledSum += (digits & 1) == 1 ? digit : doubled;
+                    i++;
+                } else if ((character == ' ' || character == '-') && (separator == NO_SEPARATOR || separator == character)
+                        && i + 1 < to && isDigit(input.charAt(i + 1))) {
+                    separator = character;
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            final var luhnSum = (digits & 1) == 0 ? evenDoubledSum : oddDoubledSum;
+            return digits >= MIN_CARD_DIGITS && luhnSum % 10 == 0 && endsValue(input, i, to) ? i : NO_MATCH;
+        }
+    },
+    IBAN {
+        @Override
+        boolean mayStartWith(final char character) {
+            return isUpperCaseLetter(character);
+        }
+
+        @Override
+        int end(final CharSequence input, final int start, final int to) {
+            if (start + IBAN_HEADER_LENGTH > to || !isUpperCaseLetter(input.charAt(start + 1))
+                    || !isDigit(input.charAt(start + 2)) || !isDigit(input.charAt(start + 3))) {
+                return NO_MATCH;
+            }
+            var length = IBAN_HEADER_LENGTH;
+            var groupStart = start;
+            var i = start + IBAN_HEADER_LENGTH;
+            while (i < to && length < MAX_IBAN_LENGTH) {
+                final var character = input.charAt(i);
+                if (isUpperCaseLetter(character) || isDigit(character)) {
+                    length++;
+                    i++;
+                } else if (character == ' ' && i - groupStart == IBAN_GROUP_LENGTH && i + 1 < to && isIbanCharacter(input.charAt(i + 1))) {
+                    groupStart = ++i;
+                } else {
+                    break;
+                }
+            }
+            for (var end = i; end > start; end = previousGroupEnd(input, start, end)) {
+                if (end - start - spaces(input, start, end) >= MIN_IBAN_LENGTH && endsValue(input, end, to)
+                        && mod97(input, start, end) == 1) {
+                    return end;
+                }
+            }
+            return NO_MATCH;
+        }
+    },
+    PESEL {
+        @Override
+        boolean mayStartWith(final char character) {
+            return isDigit(character);
+        }
+
+        @Override
+        int end(final CharSequence input, final int start, final int to) {
+            final var end = start + PESEL_LENGTH;
+            if (end > to || !endsValue(input, end, to)) {
+                return NO_MATCH;
+            }
+            var checksum = 0;
+            for (int i = start; i < end - 1; i++) {
+                final var character = input.charAt(i);
+                if (!isDigit(character)) {
+                    return NO_MATCH;
+                }
+                checksum += (character - '0') * PESEL_WEIGHTS[i - start];
+            }
+            final var controlDigit = input.charAt(end - 1);
+            final var month = digits(input, start + 2) % 20;
+            final var day = digits(input, start + 4);
+            return isDigit(controlDigit) && (10 - checksum % 10) % 10 == controlDigit - '0'
+                    && month >= 1 && month <= 12 && day >= 1 && day <= 31 ? end : NO_MATCH;
+        }
+    },
+    PHONE {
+        @Override
+        boolean mayStartWith(final char character) {
+            return character == '+';
+        }
+
+        @Override
+        int end(final CharSequence input, final int start, final int to) {
+            if (start + 1 >= to || input.charAt(start + 1) < '1' || input.charAt(start + 1) > '9') {
+                return NO_MATCH;
+            }
+            var digits = 0;
+            var i = start + 1;
+            while (i < to) {
+                final var character = input.charAt(i);
+                if (isDigit(character)) {
+                    if (++digits > MAX_PHONE_DIGITS) {
+                        return NO_MATCH;
+                    }
+                    i++;
+                } else if ((character == ' ' || character == '-') && i + 1 < to && isDigit(input.charAt(i + 1))) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            return digits >= MIN_PHONE_DIGITS && endsValue(input, i, to) ? i : NO_MATCH;
+        }
+    },
+    EMAIL {
+        @Override
+        boolean mayStartWith(final char character) {
+            return isLetterOrDigit(character);
+        }
+
+        @Override
+        int end(final CharSequence input, final int start, final int to) {
+            var at = start;
+            while (at < to && at - start <= MAX_EMAIL_LOCAL_PART_LENGTH && isEmailLocalPartCharacter(input.charAt(at))) {
+                at++;
+            }
+            if (at == to || input.charAt(at) != '@' || at - start > MAX_EMAIL_LOCAL_PART_LENGTH || input.charAt(at - 1) == '.') {
+                return NO_MATCH;
+            }
+            var labels = 0;
+            var end = NO_MATCH;
+            var labelStart = at + 1;
+            var topLevelLabel = true;
+            for (int i = labelStart; i <= to; i++) {
+                final var character = i < to ? input.charAt(i) : '\0';
+                if (isLetterOrDigit(character) || character == '-') {
+                    topLevelLabel &= !isDigit(character) && character != '-';
+                    continue;
+                }
+                if (i == labelStart || input.charAt(i - 1) == '-' || input.charAt(labelStart) == '-') {
+                    break;
+                }
+                labels++;
+                if (labels > 1 && topLevelLabel && i - labelStart >= 2) {
+                    end = i;
+                }
+                if (character != '.') {
+                    break;
+                }
+                labelStart = i + 1;
+                topLevelLabel = true;
+            }
+            return end != NO_MATCH && endsValue(input, end, to) ? end : NO_MATCH;
+        }
+    };
+
+    static final int NO_MATCH = -1;
+    static final int MAX_EMAIL_LOCAL_PART_LENGTH = 64;
+    private static final char NO_SEPARATOR = '\0';
+    private static final int MIN_CARD_DIGITS = 13;
+    private static final int MAX_CARD_DIGITS = 19;
+    private static final int IBAN_HEADER_LENGTH = 4;
+    private static final int IBAN_GROUP_LENGTH = 4;
+    private static final int MIN_IBAN_LENGTH = 15;
+    private static final int MAX_IBAN_LENGTH = 34;
+    private static final int PESEL_LENGTH = 11;
+    private static final int[] PESEL_WEIGHTS = {1, 3, 7, 9, 1, 3, 7, 9, 1, 3};
+    private static final int MIN_PHONE_DIGITS = 8;
+    private static final int MAX_PHONE_DIGITS = 15;
+    private static final List<String> names = Arrays.stream(values())
+            .map(Enum::name).toList();
+
+    abstract boolean mayStartWith(char character);
+
+    abstract int end(CharSequence input, int start, int to);
+
+    static boolean isValidName(final String name) {
+        return names.contains(name);
+    }
+
+    static List<String> getValueShapesNames() {
+        return names;
+    }
+
+    static boolean isLetterOrDigit(final char character) {
+        return character < 128 ? isDigit(character) || (character | 0x20) >= 'a' && (character | 0x20) <= 'z'
+                : Character.isLetterOrDigit(character);
+    }
+
+    private static boolean endsValue(final CharSequence input, final int end, final int to) {
+        return end == to || !isLetterOrDigit(input.charAt(end)) && input.charAt(end) != '_';
+    }
+
+    private static boolean isDigit(final char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean isUpperCaseLetter(final char character) {
+        return character >= 'A' && character <= 'Z';
+    }
+
+    private static boolean isIbanCharacter(final char character) {
+        return isUpperCaseLetter(character) || isDigit(character);
+    }
+
+    private static boolean isEmailLocalPartCharacter(final char character) {
+        return character < 128 && (isLetterOrDigit(character) || ".%+-_".indexOf(character) >= 0);
+    }
+
+    private static int digits(final CharSequence input, final int start) {
+        return (input.charAt(start) - '0') * 10 + input.charAt(start + 1) - '0';
+    }
+
+    private static int previousGroupEnd(final CharSequence input, final int start, final int end) {
+        for (int i = end - 1; i > start; i--) {
+            if (input.charAt(i) == ' ') {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static int spaces(final CharSequence input, final int start, final int end) {
+        var spaces = 0;
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == ' ') {
+                spaces++;
+            }
+        }
+        return spaces;
+    }
+
+    private static int mod97(final CharSequence input, final int start, final int end) {
+        return mod97(input, start, start + IBAN_HEADER_LENGTH, mod97(input, start + IBAN_HEADER_LENGTH, end, 0));
+    }
+
+    private static int mod97(final CharSequence input, final int from, final int to, final int initialRemainder) {
+        var remainder = initialRemainder;
+        for (int i = from; i < to; i++) {
+            final var character = input.charAt(i);
+            if (isDigit(character)) {
+                remainder = (remainder * 10 + character - '0') % 97;
+            } else if (character != ' ') {
+                remainder = (remainder * 100 + character - 'A' + 10) % 97;
+            }
+        }
+        return remainder;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import static java.util.Objects.isNull;
+
+final class TemplateShape {
+    static final int NO_MATCH = -1;
+    private static final String REGEXP_METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String VALUE_GROUP_START = "([^";
+
+    private final String template;
+    private final String prefix;
+    private final String middle;
+    private final String excludedCharacters;
+    private final boolean emptyValueAllowed;
+    private final String suffix;
+
+    private TemplateShape(final String template, final String prefix, final String middle, final String excludedCharacters,
+                          final boolean emptyValueAllowed, final String suffix) {
+        this.template = template;
+        this.prefix = prefix;
+        this.middle = middle;
+        this.excludedCharacters = excludedCharacters;
+        this.emptyValueAllowed = emptyValueAllowed;
+        this.suffix = suffix;
+    }
+
+    static TemplateShape of(final String template) {
+        final var markerIndex = template.indexOf(SensitiveDataPatternFactory.PROPERTY_NAME_MARKER);
+        final var middleStart = markerIndex + SensitiveDataPatternFactory.PROPERTY_NAME_MARKER.length();
+        final var valueGroupStart = template.indexOf(VALUE_GROUP_START, middleStart);
+        if (markerIndex < 0 || valueGroupStart < 0) {
+            return null;
+        }
+        final var excludedCharacters = new StringBuilder();
+        final var classEnd = parseExcludedCharacters(template, valueGroupStart + VALUE_GROUP_START.length(), excludedCharacters);
+        if (classEnd < 0 || classEnd + 2 >= template.length() || template.charAt(classEnd + 2) != ')') {
+            return null;
+        }
+        final var quantifier = template.charAt(classEnd + 1);
+        final var prefix = literal(template, 0, markerIndex);
+        final var middle = literal(template, middleStart, valueGroupStart);
+        final var suffix = literal(template, classEnd + 3, template.length());
+        if ((quantifier != '*' && quantifier != '+') || isNull(prefix) || isNull(middle) || isNull(suffix)
+                || suffix.isEmpty() || excludedCharacters.indexOf(String.valueOf(suffix.charAt(0))) < 0) {
+            return null;
+        }
+        return new TemplateShape(template, prefix, middle, excludedCharacters.toString(), quantifier == '*', suffix);
+    }
+
+    String template() {
+        return template;
+    }
+
+    int prefixLength() {
+        return prefix.length();
+    }
+
+    boolean matchesPrefix(final CharSequence input, final int start) {
+        return regionMatches(input, start, prefix);
+    }
+
+    int valueStart(final CharSequence input, final int nameEnd, final int to) {
+        return nameEnd + middle.length() <= to && regionMatches(input, nameEnd, middle) ? nameEnd + middle.length() : NO_MATCH;
+    }
+
+    int valueEnd(final CharSequence input, final int valueStart, final int to) {
+        var position = valueStart;
+        while (position < to && excludedCharacters.indexOf(input.charAt(position)) < 0) {
+            position++;
+        }
+        return position;
+    }
+
+    boolean isValue(final CharSequence input, final int valueStart, final int valueEnd, final int to) {
+        return (emptyValueAllowed || valueEnd > valueStart)
+                && valueEnd + suffix.length() <= to
+                && regionMatches(input, valueEnd, suffix);
+    }
+
+    int suffixLength() {
+        return suffix.length();
+    }
+
+    private static int parseExcludedCharacters(final String template, final int from, final StringBuilder excludedCharacters) {
+        for (int i = from; i < template.length(); i++) {
+            final var character = template.charAt(i);
+            if (character == '\\') {
+                if (i + 1 == template.length() || Character.isLetterOrDigit(template.charAt(i + 1))) {
+                    return NO_MATCH;
+                }
+                excludedCharacters.append(template.charAt(++i));
+            } else if (character == ']') {
+                return excludedCharacters.isEmpty() ? NO_MATCH : i;
+            } else if (character == '[' || character == '-' || character == '&') {
+                return NO_MATCH;
+            } else {
+                excludedCharacters.append(character);
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static String literal(final String template, final int from, final int to) {
+        final var literal = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            final var character = template.charAt(i);
+            if (character == '\\') {
+                if (i + 1 == to || Character.isLetterOrDigit(template.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(template.charAt(++i));
+            } else if (REGEXP_METACHARACTERS.indexOf(character) >= 0) {
+                return null;
+            } else {
+                literal.append(character);
+            }
+        }
+        return literal.toString();
+    }
+
+    private static boolean regionMatches(final CharSequence input, final int start, final String literal) {
+        if (start < 0 || start + literal.length() > input.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (input.charAt(start + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
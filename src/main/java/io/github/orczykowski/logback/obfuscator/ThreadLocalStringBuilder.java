@@ -0,0 +1,18 @@
+package io.github.orczykowski.logback.obfuscator;
+
+final class ThreadLocalStringBuilder {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    StringBuilder acquire() {
+        var buffer = buffers.get();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+            buffers.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+import static java.util.Objects.isNull;
+
+final class ValueShapeDetector {
+    static final long NOT_FOUND = -1L;
+    private static final int ASCII_SIZE = 128;
+    private static final byte LETTER_OR_DIGIT = 1;
+    private static final byte STARTS_VALUE = 2;
+
+    private final SensitiveValueShapes[][] shapesByFirstCharacter = new SensitiveValueShapes[ASCII_SIZE][];
+    private final byte[] characterFlags = new byte[ASCII_SIZE];
+    private final boolean detectsEmails;
+    private final MaskingMetrics metrics;
+
+    ValueShapeDetector(final Collection<SensitiveValueShapes> shapes, final MaskingMetrics metrics) {
+        final var orderedShapes = EnumSet.copyOf(shapes);
+        for (char character = 0; character < ASCII_SIZE; character++) {
+            final var firstCharacter = character;
+            shapesByFirstCharacter[character] = orderedShapes.stream()
+                    .filter(shape -> shape.mayStartWith(firstCharacter))
+                    .toArray(SensitiveValueShapes[]::new);
+            characterFlags[character] = (byte) ((SensitiveValueShapes.isLetterOrDigit(character) ? LETTER_OR_DIGIT : 0)
+                    | (shapesByFirstCharacter[character].length > 0 ? STARTS_VALUE : 0));
+        }
+        this.detectsEmails = shapes.contains(SensitiveValueShapes.EMAIL);
+        this.metrics = metrics;
+    }
+
+    boolean mayContainSensitiveData(final CharSequence input) {
+        return find(input, 0, input.length()) != NOT_FOUND;
+    }
+
+    void mask(final CharSequence input, final int from, final int to, final AbstractSensitiveDataObfuscatorLayout.SensitiveValueMasker masker,
+              final StringBuilder target) {
+        var lastIndex = from;
+        for (var hit = find(input, from, to, true); hit != NOT_FOUND; hit = find(input, lastIndex, to, true)) {
+            final var valueStart = start(hit);
+            final var valueEnd = end(hit);
+            target.append(input, lastIndex, valueStart);
+            masker.mask(target, input, valueStart, valueEnd);
+            lastIndex = valueEnd;
+        }
+        target.append(input, lastIndex, to);
+    }
+
+    long find(final CharSequence input, final int from, final int to) {
+        return find(input, from, to, false);
+    }
+
+    private long find(final CharSequence input, final int from, final int to, final boolean recordMatch) {
+        var nextAt = detectsEmails ? indexOf(input, '@', from, to) : SensitiveValueShapes.NO_MATCH;
+        var afterLetterOrDigit = from > 0 && SensitiveValueShapes.isLetterOrDigit(input.charAt(from - 1));
+        for (int i = from; i < to; i++) {
+            final var character = input.charAt(i);
+            if (character >= ASCII_SIZE) {
+                afterLetterOrDigit = Character.isLetterOrDigit(character);
+                continue;
+            }
+            final var flags = characterFlags[character];
+            final var startsValue = !afterLetterOrDigit && (flags & STARTS_VALUE) != 0;
+            afterLetterOrDigit = (flags & LETTER_OR_DIGIT) != 0;
+            if (!startsValue) {
+                continue;
+            }
+            if (nextAt != SensitiveValueShapes.NO_MATCH && nextAt < i) {
+                nextAt = indexOf(input, '@', i, to);
+            }
+            final var end = end(input, i, to, character, nextAt, recordMatch);
+            if (end != SensitiveValueShapes.NO_MATCH) {
+                return ((long) i << Integer.SIZE) | end;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    static int start(final long hit) {
+        return (int) (hit >>> Integer.SIZE);
+    }
+
+    static int end(final long hit) {
+        return (int) hit;
+    }
+
+    private int end(final CharSequence input, final int start, final int to, final char character, final int nextAt,
+                    final boolean recordMatch) {
+        for (final SensitiveValueShapes shape : shapesByFirstCharacter[character]) {
+            if (shape == SensitiveValueShapes.EMAIL && isTooFarFromAt(start, nextAt)) {
+                continue;
+            }
+            final var end = shape.end(input, start, to);
+            if (end != SensitiveValueShapes.NO_MATCH) {
+                if (recordMatch && !isNull(metrics)) {
+                    metrics.recordMatch(shape.name(), MaskingMetrics.VALUE_SHAPE_TEMPLATE);
+                }
+                return end;
+            }
+        }
+        return SensitiveValueShapes.NO_MATCH;
+    }
+
+    private static boolean isTooFarFromAt(final int start, final int nextAt) {
+        return nextAt == SensitiveValueShapes.NO_MATCH || nextAt - start > SensitiveValueShapes.MAX_EMAIL_LOCAL_PART_LENGTH;
+    }
+
+    private static int indexOf(final CharSequence input, final char character, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (input.charAt(i) == character) {
+                return i;
+            }
+        }
+        return SensitiveValueShapes.NO_MATCH;
+    }
+}
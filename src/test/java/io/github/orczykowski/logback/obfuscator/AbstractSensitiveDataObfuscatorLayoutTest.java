@@ -1,5 +1,7 @@
 package io.github.orczykowski.logback.obfuscator;
 
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.status.Status;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,8 +10,11 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AbstractSensitiveDataObfuscatorLayoutTest {
 
@@ -49,6 +54,14 @@ class AbstractSensitiveDataObfuscatorLayoutTest {
     }
 
 
+    @ParameterizedTest
+    @ValueSource(strings = {"[PROPERTY_NAME]=.*", "[PROPERTY_NAME]=(?:.*)", "[PROPERTY_NAME]=(.*"})
+    void shouldThrowExceptionWhenCustomPatternHasNoSensitiveValueGroup(final String pattern) {
+        //expect:
+        assertThrows(IncorrectConfigurationException.class, () -> subject.addCustomPattern(pattern));
+    }
+
+
     @Test
     void shouldThrowExceptionWhenTryAddFieldNamesBeforePatterns() {
         //given:
@@ -76,6 +89,88 @@ class AbstractSensitiveDataObfuscatorLayoutTest {
         Assertions.assertEquals("Unknown name. You can use the following predefined pattern names [JSON,EQUAL_AND_SQUARE_BRACKETS,EQUAL_AND_BRACKETS,EQUAL_AND_DOUBLE_QUOTES]", ex.getMessage());
     }
 
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"  "})
+    void shouldThrowExceptionWhenFieldNameIsBlank(final String fieldName) {
+        //given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+
+        //expect:
+        var ex = assertThrows(IncorrectConfigurationException.class, () -> subject.addFieldName(fieldName));
+        assertEquals("Field name cannot be blank", ex.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldTreatFieldNamesAsLiterals(final boolean linearTimeMatching) {
+        //given:
+        var layout = new MaskSensitiveDataLayout();
+        layout.setLinearTimeMatching(linearTimeMatching);
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        layout.addFieldName("user.email");
+        layout.addFieldName("phone+");
+
+        //when:
+        var computedMaskedLog = layout.maskLogMessage("user.email=[a@b.c] userXemail=[a@b.c] phone+=[123] phoneee=[123]");
+
+        //then:
+        assertEquals("user.email=[********] userXemail=[a@b.c] phone+=[********] phoneee=[123]", computedMaskedLog);
+    }
+
+    @Test
+    void shouldReportCompilationAndConfigurationMistakesOnStart() {
+        //given:
+        var context = new LoggerContext();
+        subject.setContext(context);
+        subject.setPattern("%m");
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addCustomPattern("[PROPERTY_NAME]=\\[(.*)\\]");
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_BRACKETS.name());
+        subject.addFieldName("email");
+        subject.addFieldName("email");
+        subject.addFieldName("firstName");
+
+        //when:
+        subject.start();
+
+        //then:
+        var statuses = context.getStatusManager().getCopyOfStatusList().stream()
+                .map(status -> status.getLevel() + " " + status.getMessage())
+                .toList();
+        assertTrue(statuses.contains(Status.WARN + " Pattern [%s] is configured more than once"
+                .formatted(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.getPatternTemplate())));
+        assertTrue(statuses.contains(Status.WARN + " Field name [email] is configured more than once"));
+        assertTrue(statuses.contains(Status.WARN + " Patterns [%s] and [%s] can match the same text, the one added first wins"
+                .formatted(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.getPatternTemplate(),
+                        "[PROPERTY_NAME]=\\[(.*)\\]")));
+        assertEquals(1, statuses.stream().filter(status -> status.contains("can match the same text")).count());
+        assertTrue(statuses.stream().anyMatch(status -> status.matches(
+                Status.INFO + " Compiled \\[2] field names and \\[3] patterns in \\[\\d+] ms, the matcher has \\[\\d+] characters")));
+    }
+
+    @Test
+    void shouldWarnThatFieldNamesWithRegularExpressionCharactersAreMatchedLiterally() {
+        //given:
+        var context = new LoggerContext();
+        subject.setContext(context);
+        subject.setPattern("%m");
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("pass.*");
+        subject.addFieldName("email");
+
+        //when:
+        subject.start();
+
+        //then:
+        var warnings = context.getStatusManager().getCopyOfStatusList().stream()
+                .filter(status -> status.getLevel() == Status.WARN)
+                .map(Status::getMessage)
+                .toList();
+        assertEquals(List.of("Field name [pass.*] contains regular expression characters, it is matched literally"), warnings);
+    }
+
     static class TestImplementationSensitiveDataTextDecoratorTest extends AbstractSensitiveDataObfuscatorLayout {
         @Override
         protected String maskLogMessage(final String str) {
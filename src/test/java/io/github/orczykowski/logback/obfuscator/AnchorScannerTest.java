@@ -0,0 +1,79 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnchorScannerTest {
+
+    AnchorScanner subject = new AnchorScanner(List.of("email", "surname", "name"), Set.of('=', '"'), Set.of(0, 1));
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "nothing to mask here", "email", "e-mail=[x]", "sur=[x] = \" =\""})
+    void shouldNotFindAnythingWhenNoFieldNameEndsAtAnchor(final String input) {
+        //expect:
+        assertEquals(AnchorScanner.NOT_FOUND, subject.cursor(input).find(0, input.length()));
+        assertEquals(AnchorScanner.NOT_FOUND, subject.cursor(new StringBuilder(input)).find(0, input.length()));
+        assertFalse(subject.containsName(input, 0, input.length()));
+        assertFalse(subject.containsName(new StringBuilder(input), 0, input.length()));
+        assertFalse(subject.containsName(CharBuffer.wrap(input), 0, input.length()));
+    }
+
+    @Test
+    void shouldFindEveryAnchorPrecededByFieldName() {
+        //given:
+        var input = "x=1 surname=[a] {\"email\":\"b\"} name=";
+        var cursor = subject.cursor(input);
+
+        //when:
+        var first = cursor.find(0, input.length());
+        var second = cursor.find(0, first + 1, input.length());
+        var third = cursor.find(0, second + 1, input.length());
+
+        //then:
+        assertEquals(input.indexOf("surname=") + "surname".length(), first);
+        assertEquals(input.indexOf("email\"") + "email".length(), second);
+        assertEquals(input.lastIndexOf('='), third);
+        assertEquals(AnchorScanner.NOT_FOUND, cursor.find(0, third + 1, input.length()));
+    }
+
+    @Test
+    void shouldNotFindFieldNameStartingBeforeSearchStart() {
+        //given:
+        var input = "surname=[a]";
+
+        //when:
+        var nameEnd = subject.cursor(input).find(3, input.length());
+
+        //then:
+        assertEquals("surname".length(), nameEnd);
+        assertEquals(AnchorScanner.NOT_FOUND, subject.cursor(input).find(4, input.length()));
+        assertArrayEquals(new int[]{7, 5, 4}, subject.nameLengths());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {"x=1 {\"email\":\"b\"}|email", "x=1 surname=[a]|surname"})
+    void shouldTellWhetherFieldNameEndsAtAnchorWithinRange(final String input, final String fieldName) {
+        //given:
+        var nameStart = input.indexOf(fieldName);
+        var anchor = nameStart + fieldName.length();
+
+        //expect:
+        for (final CharSequence sequence : List.of(input, new StringBuilder(input), CharBuffer.wrap(input))) {
+            assertTrue(subject.containsName(sequence, 0, input.length()));
+            assertTrue(subject.containsName(sequence, nameStart, anchor + 1));
+            assertFalse(subject.containsName(sequence, 0, anchor));
+            assertFalse(subject.containsName(sequence, nameStart + 4, input.length()));
+        }
+    }
+}
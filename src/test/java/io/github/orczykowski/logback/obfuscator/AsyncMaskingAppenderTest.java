@@ -0,0 +1,252 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncMaskingAppenderTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger(AsyncMaskingAppenderTest.class);
+
+    AsyncMaskingAppender subject;
+
+    @AfterEach
+    void cleanup() {
+        subject.stop();
+    }
+
+    @Test
+    void shouldMaskEventsOffCallerThreadAndKeepTheirOrder() {
+        //given:
+        var delegate = new ListAppender<ILoggingEvent>();
+        subject = appender(delegate, 64, 4, AsyncMaskingAppender.OverflowPolicy.BLOCK);
+
+        //when:
+        for (int i = 0; i < 1000; i++) {
+            subject.doAppend(event(Level.INFO, "event %d firstName=[Gustaw%d]".formatted(i, i)));
+        }
+        subject.stop();
+
+        //then:
+        assertEquals(1000, delegate.list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("event %d firstName=[********]".formatted(i), delegate.list.get(i).getFormattedMessage());
+        }
+    }
+
+    @Test
+    void shouldMaskMdcValuesAndDropArguments() {
+        //given:
+        var delegate = new ListAppender<ILoggingEvent>();
+        subject = appender(delegate, 8, 1, AsyncMaskingAppender.OverflowPolicy.BLOCK);
+        var logEvent = new LoggingEvent("FQCN", logger, Level.INFO, "user {}", null, new Object[]{"firstName=[Gustaw]"});
+        logEvent.setMDCPropertyMap(Map.of("request", "firstName=[Gustaw]"));
+
+        //when:
+        subject.doAppend(logEvent);
+        subject.stop();
+
+        //then:
+        var maskedEvent = delegate.list.get(0);
+        assertEquals("user firstName=[********]", maskedEvent.getFormattedMessage());
+        assertEquals("user firstName=[********]", maskedEvent.getMessage());
+        assertNull(maskedEvent.getArgumentArray());
+        assertEquals(Map.of("request", "firstName=[********]"), maskedEvent.getMDCPropertyMap());
+    }
+
+    @Test
+    void shouldDropEventsBelowLevelWhenQueueIsFull() {
+        //given:
+        var delegate = new BlockingAppender();
+        subject = appender(delegate, 4, 1, AsyncMaskingAppender.OverflowPolicy.DROP_BELOW_LEVEL);
+
+        //when:
+        for (int i = 0; i < 20; i++) {
+            subject.doAppend(event(Level.INFO, "event %d".formatted(i)));
+        }
+        delegate.release();
+        subject.stop();
+
+        //then:
+        assertTrue(subject.getDroppedEvents() > 0);
+        assertEquals(20, delegate.messages.size() + subject.getDroppedEvents());
+    }
+
+    @Test
+    void shouldMaskQueuedEventsOnCallerThreadWhenQueueIsFullAndKeepTheirOrder() throws InterruptedException {
+        //given:
+        var delegate = new BlockingAppender();
+        var callerThread = Thread.currentThread();
+        var maskedOnCallerThread = new AtomicInteger();
+        var layout = new MaskSensitiveDataLayout() {
+            @Override
+            protected String maskLogMessage(final String logMessage) {
+                if (Thread.currentThread() == callerThread) {
+                    maskedOnCallerThread.incrementAndGet();
+                }
+                return super.maskLogMessage(logMessage);
+            }
+        };
+        subject = appender(delegate, layout, 4, 1, AsyncMaskingAppender.OverflowPolicy.MASK_SYNCHRONOUSLY);
+        var releaser = new Thread(() -> {
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (maskedOnCallerThread.get() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            delegate.release();
+        });
+        releaser.start();
+
+        //when:
+        for (int i = 0; i < 20; i++) {
+            subject.doAppend(event(Level.DEBUG, "event %d firstName=[Gustaw]".formatted(i)));
+        }
+        subject.stop();
+        releaser.join();
+
+        //then:
+        assertTrue(maskedOnCallerThread.get() > 0);
+        assertEquals(0, subject.getDroppedEvents());
+        assertEquals(IntStream.range(0, 20).mapToObj("event %d firstName=[********]"::formatted).toList(), delegate.messages);
+    }
+
+    @Test
+    void shouldMaskMessagesOfExceptionAndItsCauses() {
+        //given:
+        var delegate = new ListAppender<ILoggingEvent>();
+        subject = appender(delegate, 8, 1, AsyncMaskingAppender.OverflowPolicy.BLOCK);
+        var exception = new IllegalStateException("firstName=[Gustaw] already exists", new IllegalArgumentException("firstName=[Jan]"));
+        exception.addSuppressed(new IllegalStateException("firstName=[Anna]"));
+        var logEvent = new LoggingEvent("FQCN", logger, Level.ERROR, "failed", exception, null);
+        logEvent.setMDCPropertyMap(Map.of());
+
+        //when:
+        subject.doAppend(logEvent);
+        subject.stop();
+
+        //then:
+        var throwableProxy = delegate.list.get(0).getThrowableProxy();
+        assertEquals("firstName=[********] already exists", throwableProxy.getMessage());
+        assertEquals(IllegalStateException.class.getName(), throwableProxy.getClassName());
+        assertEquals("firstName=[********]", throwableProxy.getCause().getMessage());
+        assertEquals("firstName=[********]", throwableProxy.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    void shouldDetachAndStopAttachedAppenderOnStop() {
+        //given:
+        var delegate = new ListAppender<ILoggingEvent>();
+        subject = appender(delegate, 8, 1, AsyncMaskingAppender.OverflowPolicy.BLOCK);
+
+        //when:
+        subject.stop();
+
+        //then:
+        assertFalse(delegate.isStarted());
+        assertFalse(subject.isAttached(delegate));
+    }
+
+    @Test
+    void shouldFlushOutputStreamAppenderAfterWrittenBatches() {
+        //given:
+        var output = new ByteArrayOutputStream();
+        var encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        var delegate = new OutputStreamAppender<ILoggingEvent>();
+        delegate.setEncoder(encoder);
+        delegate.setOutputStream(output);
+        subject = appender(delegate, new MaskSensitiveDataLayout(), 64, 2, AsyncMaskingAppender.OverflowPolicy.BLOCK);
+
+        //when:
+        var immediateFlushWhileStarted = delegate.isImmediateFlush();
+        for (int i = 0; i < 100; i++) {
+            subject.doAppend(event(Level.INFO, "event %d firstName=[Gustaw]".formatted(i)));
+        }
+        subject.stop();
+
+        //then:
+        assertFalse(immediateFlushWhileStarted);
+        assertEquals(IntStream.range(0, 100).mapToObj("event %d firstName=[********]"::formatted).toList(),
+                output.toString().lines().toList());
+    }
+
+    private AsyncMaskingAppender appender(final Appender<ILoggingEvent> delegate, final int queueSize, final int workers,
+                                          final AsyncMaskingAppender.OverflowPolicy overflowPolicy) {
+        return appender(delegate, new MaskSensitiveDataLayout(), queueSize, workers, overflowPolicy);
+    }
+
+    private AsyncMaskingAppender appender(final Appender<ILoggingEvent> delegate, final MaskSensitiveDataLayout layout,
+                                          final int queueSize, final int workers,
+                                          final AsyncMaskingAppender.OverflowPolicy overflowPolicy) {
+        layout.setContext(context);
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        layout.addFieldName("firstName");
+        delegate.setContext(context);
+        delegate.start();
+        var appender = new AsyncMaskingAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setLayout(layout);
+        appender.setQueueSize(queueSize);
+        appender.setWorkers(workers);
+        appender.setOverflowPolicy(overflowPolicy);
+        appender.setMaxFlushTime(5000);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+
+    private ILoggingEvent event(final Level level, final String message) {
+        var logEvent = new LoggingEvent("FQCN", logger, level, message, null, null);
+        logEvent.setMDCPropertyMap(Map.of());
+        return logEvent;
+    }
+
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(final ILoggingEvent event) {
+            await();
+            messages.add(event.getFormattedMessage());
+        }
+
+        private void await() {
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void release() {
+            released.countDown();
+        }
+    }
+}
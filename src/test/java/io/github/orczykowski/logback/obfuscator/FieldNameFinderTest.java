@@ -0,0 +1,67 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FieldNameFinderTest {
+
+    FieldNameFinder subject = new FieldNameFinder(List.of("email", "surname", "name", "imię"), Set.of(0, 1));
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "nothing to mask here", "e-mail=[x]", "sur=[x]", "imie=[x]"})
+    void shouldNotFindAnythingWhenNoFieldNameIsPresent(final String input) {
+        //expect:
+        assertEquals(FieldNameFinder.NOT_FOUND, subject.find(input, 0, FieldNameFinder.INITIAL_STATE));
+    }
+
+    @Test
+    void shouldReturnEndOfFirstFieldNameAndCandidateOffsets() {
+        //given:
+        var input = "user surname=[Gustaw]";
+
+        //when:
+        var hit = subject.find(input, 0, FieldNameFinder.INITIAL_STATE);
+
+        //then:
+        assertEquals("user surname".length(), FieldNameFinder.end(hit));
+        assertArrayEquals(new int[]{8, 7, 5, 4}, subject.candidateOffsets(hit));
+    }
+
+    @Test
+    void shouldContinueSearchFromPreviousHit() {
+        //given:
+        var input = "email=[x] imię=[y]";
+        var firstHit = subject.find(input, 0, FieldNameFinder.INITIAL_STATE);
+
+        //when:
+        var secondHit = subject.find(input, FieldNameFinder.end(firstHit), FieldNameFinder.state(firstHit));
+
+        //then:
+        assertEquals("email".length(), FieldNameFinder.end(firstHit));
+        assertEquals("email=[x] imię".length(), FieldNameFinder.end(secondHit));
+        assertEquals(FieldNameFinder.NOT_FOUND, subject.find(input, FieldNameFinder.end(secondHit), FieldNameFinder.state(secondHit)));
+    }
+
+    @Test
+    void shouldFindFieldNamesRegardlessOfCaseWhenIgnoringCase() {
+        //given:
+        var ignoringCase = new FieldNameFinder(List.of("email", "imię"), Set.of(0), true);
+        var input = "EMAIL=[x] IMIĘ=[y]";
+        var firstHit = ignoringCase.find(input, 0, FieldNameFinder.INITIAL_STATE);
+
+        //when:
+        var secondHit = ignoringCase.find(input, FieldNameFinder.end(firstHit), FieldNameFinder.state(firstHit));
+
+        //then:
+        assertEquals("EMAIL".length(), FieldNameFinder.end(firstHit));
+        assertEquals("EMAIL=[x] IMIĘ".length(), FieldNameFinder.end(secondHit));
+        assertEquals(FieldNameFinder.NOT_FOUND, subject.find(input, 0, FieldNameFinder.INITIAL_STATE));
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonValueMaskerTest {
+    private static final FieldNameSet SENSITIVE_FIELDS = new FieldNameSet(Set.of("email", "firstName", "card"));
+    private static final AbstractSensitiveDataObfuscatorLayout.SensitiveValueMasker MASKER =
+            (target, logMessage, valueStart, valueEnd) -> target.append("***");
+
+    JsonValueMasker subject = new JsonValueMasker(SENSITIVE_FIELDS, false, null);
+
+    @Test
+    void shouldMaskValuesOfSensitiveKeysAtAnyDepth() {
+        //given:
+        var json = """
+                {"user": {"firstName" : "Gus\\"taw", "emails": [{"email":"a@b.c"}, {"email": null}]}, "id": 7}""";
+
+        //expect:
+        assertEquals("""
+                {"user": {"firstName" : "***", "emails": [{"email":"***"}, {"email": null}]}, "id": 7}""", mask(json));
+    }
+
+    @Test
+    void shouldMaskNumbersAndLiteralsAsStrings() {
+        //given:
+        var json = "{\"card\":4111111111111111,\"email\":true,\"amount\":10.5}";
+
+        //expect:
+        assertEquals("{\"card\":\"***\",\"email\":\"***\",\"amount\":10.5}", mask(json));
+    }
+
+    @Test
+    void shouldMaskEveryScalarInsideSensitiveStructure() {
+        //given:
+        var json = "{\"card\":{\"number\":\"4111\",\"cvv\":123,\"owners\":[\"Gustaw\",\"Anna\"]}}";
+
+        //expect:
+        assertEquals("{\"card\":{\"number\":\"***\",\"cvv\":\"***\",\"owners\":[\"***\",\"***\"]}}", mask(json));
+    }
+
+    @Test
+    void shouldMaskWholeSensitiveStructureWhenConfigured() {
+        //given:
+        subject = new JsonValueMasker(SENSITIVE_FIELDS, true, null);
+        var json = "{\"card\":{\"number\":\"4111\",\"email\":\"x\"},\"email\":[1,2],\"id\":1}";
+
+        //expect:
+        assertEquals("{\"card\":\"***\",\"email\":\"***\",\"id\":1}", mask(json));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{", "{\"email\":", "{\"email\" \"x\"}", "{email:\"x\"}", "{}}"})
+    void shouldRejectMalformedJsonAndLeaveTargetUntouched(final String json) {
+        //given:
+        var target = new StringBuilder("prefix");
+
+        //when:
+        var end = subject.mask(json, 0, json.length(), MASKER, target);
+
+        //then:
+        if (end == JsonValueMasker.NOT_JSON) {
+            assertEquals("prefix", target.toString());
+        } else {
+            assertEquals(json.indexOf('}') + 1, end);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+            "{\"email\":\"a\"|{\"email\":\"***|11",
+            "{\"email\":\"x\",}|{\"email\":\"***|11",
+            "{\"email\":\"x\" \"y\":1}|{\"email\":\"***|11",
+            "{\"card\":12,\"id\"|{\"card\":\"***\"|10"})
+    void shouldKeepMaskedValuesOfMalformedJsonAndReturnWhereCopyingStopped(final String json, final String expectedMaskedJson,
+                                                                         final int expectedEnd) {
+        //given:
+        var target = new StringBuilder();
+
+        //when:
+        var end = subject.mask(json, 0, json.length(), MASKER, target);
+
+        //then:
+        assertEquals(expectedMaskedJson, target.toString());
+        assertEquals(expectedEnd, end);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+            "{\"email\":\"abc|{\"email\":\"***",
+            "{\"id\":1,\"card\":{\"number\":\"4111|{\"id\":1,\"card\":{\"number\":\"***",
+            "{\"email\":[\"a\",\"b|{\"email\":[\"***\",\"***"})
+    void shouldMaskRemainderOfTruncatedSensitiveValue(final String json, final String expectedMaskedJson) {
+        //given:
+        var target = new StringBuilder();
+
+        //when:
+        var end = subject.mask(json, 0, json.length(), MASKER, target);
+
+        //then:
+        assertEquals(expectedMaskedJson, target.toString());
+        assertEquals(json.length(), end);
+    }
+
+    private String mask(final String json) {
+        var target = new StringBuilder();
+        var end = subject.mask(json, 0, json.length(), MASKER, target);
+        assertEquals(json.length(), end);
+        return target.toString();
+    }
+}
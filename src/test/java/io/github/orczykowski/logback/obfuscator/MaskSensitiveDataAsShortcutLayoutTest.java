@@ -216,6 +216,38 @@ class MaskSensitiveDataAsShortcutLayoutTest {
         assertEquals(expectedLogWithMaskedSensitiveData, computedMaskedLog);
     }
 
+    @Test
+    void shouldMaskEverySensitiveValueWhenLineContainsManyValuesOfDifferentLength() {
+        // given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        addSensitiveFields();
+
+        var log = "firstName=[Gustaw] firstName=[Al] other=[some long value] {\"firstName\":\"Bartholomew\"} firstName=[x]";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        var expectedLogWithMaskedSensitiveData = "firstName=[G-6-w] firstName=[A-2-l] other=[s-15-e] {\"firstName\":\"B-11-w\"} firstName=[x-1-x]";
+        assertEquals(expectedLogWithMaskedSensitiveData, computedMaskedLog);
+    }
+
+    @Test
+    void shouldKeepSurrogatePairsInShortcut() {
+        // given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+
+        var log = "firstName=[\uD83D\uDE00Gustaw\uD83D\uDE01] other=[ ]";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        assertEquals("firstName=[\uD83D\uDE00-10-\uD83D\uDE01] other=[ ]", computedMaskedLog);
+    }
+
     @ParameterizedTest
     @EmptySource
     void shouldIgnoreEmptyString(String str) {
@@ -0,0 +1,117 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MaskSensitiveDataAsTokenLayoutTest {
+    private static final String KEY = "correlation-key";
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 256})
+    void shouldReplaceValuesWithTruncatedKeyedHash(final int tokenCacheSize) throws Exception {
+        //given:
+        var subject = layout(KEY);
+        subject.setTokenCacheSize(tokenCacheSize);
+        subject.start();
+        var log = "firstName=[Gustaw] email=[gustaw@github.io] firstName=[Gustaw] mobilePhone=[   ] other=[x]";
+
+        //when:
+        var computedMaskedLog = subject.doLayout(ILoggingEventFactory.from(log));
+
+        //then:
+        assertEquals("firstName=[%s] email=[%s] firstName=[%s] mobilePhone=[   ] other=[x]".formatted(
+                hmac(KEY, "Gustaw", 16), hmac(KEY, "gustaw@github.io", 16), hmac(KEY, "Gustaw", 16)), computedMaskedLog);
+    }
+
+    @Test
+    void shouldProduceSameTokensInEveryLayoutWithTheSameKey() {
+        //given:
+        var subject = layout(KEY);
+        subject.start();
+        var otherService = layout(KEY);
+        otherService.start();
+        var otherKey = layout("other-key");
+        otherKey.start();
+        var logEvent = ILoggingEventFactory.from("email=[gustaw@github.io]");
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals(otherService.doLayout(logEvent), computedMaskedLog);
+        assertNotEquals(otherKey.doLayout(logEvent), computedMaskedLog);
+    }
+
+    @Test
+    void shouldUseConfiguredTokenLength() throws Exception {
+        //given:
+        var subject = layout(KEY);
+        subject.setTokenLength(64);
+        subject.start();
+
+        //when:
+        var computedMaskedLog = subject.doLayout(ILoggingEventFactory.from("email=[gustaw@github.io]"));
+
+        //then:
+        assertEquals("email=[%s]".formatted(hmac(KEY, "gustaw@github.io", 64)), computedMaskedLog);
+    }
+
+    @Test
+    void shouldRejectTokenLongerThanMac() {
+        //given:
+        var subject = layout(KEY);
+        subject.setTokenLength(65);
+
+        //when:
+        subject.start();
+
+        //then:
+        assertFalse(subject.isStarted());
+    }
+
+    @Test
+    void shouldRequireKey() {
+        //given:
+        var subject = new MaskSensitiveDataAsTokenLayout();
+        subject.setContext(new LoggerContext());
+        subject.setPattern("%m");
+
+        //when:
+        subject.start();
+
+        //then:
+        assertFalse(subject.isStarted());
+        assertThrows(IncorrectConfigurationException.class, () -> subject.setKey(""));
+        assertThrows(IncorrectConfigurationException.class, () -> subject.setAlgorithm("HmacUnknown"));
+    }
+
+    private MaskSensitiveDataAsTokenLayout layout(final String key) {
+        var layout = new MaskSensitiveDataAsTokenLayout();
+        layout.setPattern("%m");
+        layout.setContext(new LoggerContext());
+        layout.setKey(key);
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        layout.addFieldName("firstName");
+        layout.addFieldName("email");
+        layout.addFieldName("mobilePhone");
+        return layout;
+    }
+
+    private static String hmac(final String key, final String value, final int tokenLength) throws Exception {
+        var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8))).substring(0, tokenLength);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MaskSensitiveDataEncoderTest {
+    private final LoggerContext context = new LoggerContext();
+
+    MaskSensitiveDataEncoder subject;
+
+    @BeforeEach
+    void setup() {
+        subject = new MaskSensitiveDataEncoder();
+        subject.setContext(context);
+        subject.setCharset(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldEncodeMaskedMessageWithSameBytesAsLayout() {
+        //given:
+        var layout = new MaskSensitiveDataLayout();
+        layout.setContext(context);
+        layout.setPattern("%-5p %c: %m%n");
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        layout.addFieldName("firstName");
+        layout.start();
+        startWith(layout);
+
+        var logEvent = ILoggingEventFactory.from("Zażółć firstName=[Gęślą] jaźń firstName=[Gustaw]");
+
+        //when:
+        var encodedLog = subject.encode(logEvent);
+
+        //then:
+        assertArrayEquals(layout.doLayout(logEvent).getBytes(StandardCharsets.UTF_8), encodedLog);
+        assertEquals("INFO  io.github.orczykowski.logback.obfuscator.ILoggingEventFactory: Zażółć firstName=[********] jaźń firstName=[********]" + System.lineSeparator(),
+                new String(encodedLog, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldEncodeShortcutsForEveryEventWithReusedBuffers() {
+        //given:
+        var layout = new MaskSensitiveDataAsShortcutLayout();
+        layout.setContext(context);
+        layout.setPattern("%m");
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        layout.addFieldName("email");
+        layout.start();
+        startWith(layout);
+
+        //expect:
+        assertEquals("{\"email\":\"t-14-o\"}", new String(subject.encode(ILoggingEventFactory.from("{\"email\":\"test@github.io\"}")), StandardCharsets.UTF_8));
+        assertEquals("no sensitive data", new String(subject.encode(ILoggingEventFactory.from("no sensitive data")), StandardCharsets.UTF_8));
+        assertEquals("{\"email\":\"a-3-c\"}", new String(subject.encode(ILoggingEventFactory.from("{\"email\":\"abc\"}")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldEncodeUsingAnyOtherLayout() {
+        //given:
+        var layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern("%m");
+        layout.start();
+        startWith(layout);
+
+        //expect:
+        assertEquals("firstName=[Gustaw]", new String(subject.encode(ILoggingEventFactory.from("firstName=[Gustaw]")), StandardCharsets.UTF_8));
+    }
+
+    private void startWith(final PatternLayout layout) {
+        subject.setLayout(layout);
+        subject.start();
+    }
+}
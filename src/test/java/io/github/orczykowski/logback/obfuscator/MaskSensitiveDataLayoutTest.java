@@ -6,15 +6,25 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.EmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MaskSensitiveDataLayoutTest {
     private static final Set<String> SENSITIVE_FIELDS = Set.of("firstName", "idCardNumber", "mobilePhone", "other");
+    private static final String POLYNOMIAL_BACKTRACKING_PATTERN = "[PROPERTY_NAME]=(.*a.*a.*a.*a.*a)b";
 
     MaskSensitiveDataLayout subject;
 
@@ -244,6 +254,708 @@ class MaskSensitiveDataLayoutTest {
         assertEquals(expectedLogWithMaskedSensitiveData, computedMaskedLog);
     }
 
+    @Test
+    void shouldMaskSeveralSensitiveValuesOfDifferentPatternsInOneLine() {
+        // given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        addSensitiveFields();
+
+        var log = "firstName=[Gustaw] other=\"sth\" payload={\"mobilePhone\":\"+48123123123\"} firstName=[Mike]";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        var expectedLogWithMaskedSensitiveData = "firstName=[********] other=\"********\" payload={\"mobilePhone\":\"********\"} firstName=[********]";
+        assertEquals(expectedLogWithMaskedSensitiveData, computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskOnlySensitiveValueWhenValueIsPartOfFieldName() {
+        // given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+
+        var log = "other=[t]";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        assertEquals("other=[********]", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskSensitiveValueWhenFieldNameAppearsEarlierWithoutDecoration() {
+        // given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("name");
+        subject.addFieldName("firstName");
+
+        var log = "name is missing, firstName=[Gustaw] and {\"name\":\"Kowalski\"}";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        assertEquals("name is missing, firstName=[********] and {\"name\":\"********\"}", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskDataUsingCustomPatternWithoutLiteralPrefix() {
+        // given:
+        subject.addCustomPattern("\\s[PROPERTY_NAME]:\\s*([^,]+)");
+        addSensitiveFields();
+
+        var log = "user firstName: Gustaw, description:sth, mobilePhone:   +48123123123";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        assertEquals("user firstName: ********, description:sth, mobilePhone:   ********", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskJsonAndTextInJsonMode() {
+        // given:
+        subject.setJsonMode(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+
+        var log = "firstName=[Gustaw] {not json} payload={ \"firstName\" : \"Gus\\\"taw\", \"mobilePhone\": 48123123123, \"nested\": {\"other\": \"sth\"}} other=[sth]";
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        var expectedLogWithMaskedSensitiveData = "firstName=[********] {not json} payload={ \"firstName\" : \"********\", \"mobilePhone\": \"********\", \"nested\": {\"other\": \"********\"}} other=[********]";
+        assertEquals(expectedLogWithMaskedSensitiveData, computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+            "payload={\"firstName\":\"Gustaw\" \"id\":1} other=[sth]|payload={\"firstName\":\"********\" \"id\":1} other=[********]",
+            "payload={\"firstName\":\"Gustaw\",} other=[sth]|payload={\"firstName\":\"********\",} other=[********]",
+            "payload={\"firstName\":\"Gustaw\"|payload={\"firstName\":\"********\"",
+            "payload={\"firstName\":\"Gustaw other=[sth]|payload={\"firstName\":\"********"})
+    void shouldNotLeakSensitiveValuesOfTruncatedOrMalformedJsonInJsonMode(final String log, final String expectedMaskedLog) {
+        // given:
+        subject.setJsonMode(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals(expectedMaskedLog, computedMaskedLog);
+    }
+
+    @Test
+    void shouldAllowFieldNamesWithoutPatternsInJsonMode() {
+        // given:
+        subject.setJsonMode(true);
+        subject.setMaskJsonStructures(true);
+        addSensitiveFields();
+
+        var log = asJson(Map.of("personalData", Map.of("firstName", "Gustaw"), "other", Map.of("idCardNumber", "CC123456")));
+        var logEvent = ILoggingEventFactory.from(log);
+        // when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        // then:
+        var expectedLogWithMaskedSensitiveData = asJson(Map.of("personalData", Map.of("firstName", "********"), "other", "********"));
+        assertEquals(expectedLogWithMaskedSensitiveData, computedMaskedLog);
+    }
+
+    @Test
+    void shouldReuseMaskedResultForRepeatedMessages() {
+        // given:
+        subject.setResultCacheSize(8);
+        subject.setMaxCacheableLength(30);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+
+        var repeatedLog = ILoggingEventFactory.from("firstName=[Gustaw]");
+        var longLog = ILoggingEventFactory.from("firstName=[Gustaw] with a very long description");
+        var streamedLog = new StringBuilder();
+
+        // when:
+        subject.doLayout(repeatedLog);
+        subject.doLayout(repeatedLog);
+        subject.doLayout(longLog);
+        subject.doLayout(repeatedLog, streamedLog);
+
+        // then:
+        assertEquals("firstName=[********]", subject.doLayout(repeatedLog));
+        assertEquals("firstName=[********]", streamedLog.toString());
+        assertEquals(3, subject.getResultCacheHits());
+        assertEquals(1, subject.getResultCacheMisses());
+    }
+
+    @Test
+    void shouldCollectMetricsPerFieldNameAndTemplate() {
+        // given:
+        subject.setMetricsEnabled(true);
+        subject.setTimingSampleRate(1);
+        subject.setJsonMode(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_BRACKETS.name());
+        addSensitiveFields();
+
+        // when:
+        subject.doLayout(ILoggingEventFactory.from("firstName=[Gustaw] idCardNumber=(CC123456) firstName=[Jan]"));
+        subject.doLayout(ILoggingEventFactory.from("{\"mobilePhone\":\"+48123123123\"}"), new StringBuilder());
+        subject.doLayout(ILoggingEventFactory.from("nothing to mask"));
+
+        // then:
+        var metrics = subject.getMetrics();
+        assertEquals(3, metrics.getMessagesProcessed());
+        assertEquals(2, metrics.getMessagesWithMatches());
+        assertEquals(Map.of("firstName", 2L, "idCardNumber", 1L, "mobilePhone", 1L), metrics.getMatchesPerFieldName());
+        assertEquals(Map.of(
+                SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.getPatternTemplate(), 2L,
+                SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_BRACKETS.getPatternTemplate(), 1L,
+                MaskingMetrics.JSON_MODE_TEMPLATE, 1L), metrics.getMatchesPerTemplate());
+        assertEquals(3, metrics.getTimedMessages());
+        assertEquals(3, Arrays.stream(metrics.getTimingHistogram()).sum());
+        assertEquals(metrics.getSampledNanos(), metrics.getEstimatedTotalNanos());
+    }
+
+    @Test
+    void shouldCountMatchesOfCachedResults() {
+        // given:
+        subject.setMetricsEnabled(true);
+        subject.setResultCacheSize(8);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addValueShape("EMAIL");
+        addSensitiveFields();
+        var repeatedLog = ILoggingEventFactory.from("firstName=[Gustaw] wrote from gustaw@github.io");
+
+        // when:
+        subject.doLayout(repeatedLog);
+        subject.doLayout(repeatedLog);
+        subject.doLayout(repeatedLog, new StringBuilder());
+
+        // then:
+        var metrics = subject.getMetrics();
+        assertEquals(2, subject.getResultCacheHits());
+        assertEquals(3, metrics.getMessagesWithMatches());
+        assertEquals(Map.of("firstName", 3L, "EMAIL", 3L), metrics.getMatchesPerFieldName());
+    }
+
+    @ParameterizedTest
+    @EnumSource(AbstractSensitiveDataObfuscatorLayout.OversizedMessagePolicy.class)
+    void shouldCountOversizedMessagesTheSameWayOnEveryPath(
+            final AbstractSensitiveDataObfuscatorLayout.OversizedMessagePolicy oversizedMessagePolicy) {
+        // given:
+        subject.setMetricsEnabled(true);
+        subject.setMaxScanLength(30);
+        subject.setOversizedMessagePolicy(oversizedMessagePolicy);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+        var oversizedLog = ILoggingEventFactory.from("firstName=[Gustaw] " + "x".repeat(40));
+
+        // when:
+        subject.doLayout(oversizedLog);
+        subject.doLayout(oversizedLog, new StringBuilder());
+
+        // then:
+        var metrics = subject.getMetrics();
+        assertEquals(2, metrics.getMessagesProcessed());
+        assertEquals(2, metrics.getMessagesWithMatches());
+        assertEquals(Map.of("firstName", 2L), metrics.getMatchesPerFieldName());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "firstName=[Gustaw] idCardNumber=(CC123456) mobilePhone=\"+48123123123\" {\"other\":\"sth\"}",
+            "firstName=[Gus[taw] firstName=[] firstName=[a]b] firstName=[x]",
+            "firstName=(a(b) firstName=firstName=(c) idCardNumberfirstName=[d]",
+            "{\"firstName\":\"\"} {\"firstName\":\"a\\\"} \"firstName\":\"b\"",
+            "firstName=\"unterminated firstName=\"x\"",
+            "no sensitive data at all"})
+    void shouldMaskTheSameWayWithLinearTimeMatching(final String log) {
+        // given:
+        var regexLayout = new MaskSensitiveDataLayout();
+        Arrays.stream(SensitiveDataPatternFactory.SensitiveValuePatterns.values()).forEach(pattern -> {
+            subject.addPatternName(pattern.name());
+            regexLayout.addPatternName(pattern.name());
+        });
+        subject.setLinearTimeMatching(true);
+        addSensitiveFields();
+        SENSITIVE_FIELDS.forEach(regexLayout::addFieldName);
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        Assertions.assertTrue(subject.isLinearTimeMatchingActive());
+        assertEquals(regexLayout.maskLogMessage(log), computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "firstName=[Gustaw] idCardNumber=(CC123456) mobilePhone=\"+48123123123\" {\"other\":\"sth\"}",
+            "firstName=[Gus[taw] firstName=[] firstName=[a]b] firstName=[x]",
+            "firstName=(a(b) firstName=firstName=(c) idCardNumberfirstName=[d]",
+            "{\"firstName\":\"\"} {\"firstName\":\"a\\\"} \"firstName\":\"b\"",
+            "== ((firstName \"\" x=[other] =other=[y]",
+            "no sensitive data at all"})
+    void shouldMaskTheSameWayWithAnchorScanning(final String log) {
+        // given:
+        var regexLayout = new MaskSensitiveDataLayout();
+        var linearLayout = new MaskSensitiveDataLayout();
+        Arrays.stream(SensitiveDataPatternFactory.SensitiveValuePatterns.values()).forEach(pattern -> {
+            subject.addPatternName(pattern.name());
+            regexLayout.addPatternName(pattern.name());
+            linearLayout.addPatternName(pattern.name());
+        });
+        subject.setAnchorScanning(true);
+        linearLayout.setAnchorScanning(true);
+        linearLayout.setLinearTimeMatching(true);
+        addSensitiveFields();
+        SENSITIVE_FIELDS.forEach(regexLayout::addFieldName);
+        SENSITIVE_FIELDS.forEach(linearLayout::addFieldName);
+        var streamedLog = new StringBuilder();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+        linearLayout.maskLogMessage(new StringBuilder(log), streamedLog);
+
+        // then:
+        Assertions.assertTrue(subject.isAnchorScanningActive());
+        Assertions.assertTrue(linearLayout.isAnchorScanningActive());
+        var expectedLog = regexLayout.maskLogMessage(log);
+        assertEquals(expectedLog, computedMaskedLog);
+        assertEquals(expectedLog, linearLayout.maskLogMessage(log));
+        assertEquals(expectedLog, streamedLog.toString());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"false,false", "true,false", "false,true", "true,true"})
+    void shouldMatchFieldNamesRegardlessOfCaseAndNamingConvention(final boolean linearTimeMatching, final boolean anchorScanning) {
+        // given:
+        subject.setNormalizedFieldNames(true);
+        subject.setLinearTimeMatching(linearTimeMatching);
+        subject.setAnchorScanning(anchorScanning);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("userEmail");
+        subject.addFieldName("IBAN_NUMBER");
+        var log = "userEmail=[a] user_email=[b] USER-EMAIL=[c] UserEmail=[d] USER_EMAIL=[e] user_Email=[f] "
+                + "ibanNumber=[g] iban-number=[h] user_first-email=[i] email=[j] userEmails=[k]";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals(linearTimeMatching, subject.isLinearTimeMatchingActive());
+        assertEquals(anchorScanning, subject.isAnchorScanningActive());
+        assertEquals("userEmail=[********] user_email=[********] USER-EMAIL=[********] UserEmail=[********] USER_EMAIL=[********] "
+                + "user_Email=[********] ibanNumber=[********] iban-number=[********] user_first-email=[i] email=[j] userEmails=[k]",
+                computedMaskedLog);
+    }
+
+    @Test
+    void shouldMatchFieldNamesExactlyUnlessNormalizationIsEnabled() {
+        // given:
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("userEmail");
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("userEmail=[a] user_email=[b] USEREMAIL=[c]");
+
+        // then:
+        assertEquals("userEmail=[********] user_email=[b] USEREMAIL=[c]", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMatchJsonKeysRegardlessOfCaseAndNamingConvention() {
+        // given:
+        subject.setJsonMode(true);
+        subject.setNormalizedFieldNames(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        subject.addFieldName("userEmail");
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("{\"user_email\":\"a\",\"USER-EMAIL\":\"b\",\"name\":\"c\"}");
+
+        // then:
+        assertEquals("{\"user_email\":\"********\",\"USER-EMAIL\":\"********\",\"name\":\"c\"}", computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldMaskValuesByShapeOutsideOfMatchedFields(final boolean linearTimeMatching) {
+        // given:
+        subject.setLinearTimeMatching(linearTimeMatching);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+        subject.addValueShape("CARD_NUMBER");
+        subject.addValueShape("EMAIL");
+        var log = "firstName=[Gustaw] paid with 4111111111111111, receipt sent to gustaw@github.io, order=[4111111111111112]";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals("firstName=[********] paid with ********, receipt sent to ********, order=[4111111111111112]",
+                computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "false|OUTERMOST|id=\"********\" 3 4 5 6 7 8 9]",
+            "true|OUTERMOST|id=\"********\" 3 4 5 6 7 8 9]",
+            "false|LONGEST|id=\"1 data=[********]",
+            "true|LONGEST|id=\"1 data=[********]",
+            "false|FIRST|id=\"1 data=[********]",
+            "true|FIRST|id=\"1 data=[********]"})
+    void shouldResolveOverlappingMatchesWithOverlapPolicy(final boolean linearTimeMatching,
+                                                         final AbstractSensitiveDataObfuscatorLayout.OverlapPolicy overlapPolicy,
+                                                         final String expectedMaskedLog) {
+        // given:
+        subject.setLinearTimeMatching(linearTimeMatching);
+        subject.setOverlapPolicy(overlapPolicy);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        subject.addFieldName("id");
+        subject.addFieldName("data");
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("id=\"1 data=[2\" 3 4 5 6 7 8 9]");
+
+        // then:
+        assertEquals(expectedMaskedLog, computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "OUTERMOST|email=[********] b=[c]",
+            "LONGEST|email=[********]",
+            "FIRST|email=[********] b=[c]"})
+    void shouldResolveMatchesOfTemplatesStartingAtTheSamePositionWithOverlapPolicy(
+            final AbstractSensitiveDataObfuscatorLayout.OverlapPolicy overlapPolicy,
+            final String expectedMaskedLog) {
+        // given:
+        subject.setOverlapPolicy(overlapPolicy);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addCustomPattern("[PROPERTY_NAME]=\\[(.*)\\]");
+        subject.addFieldName("email");
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("email=[a] b=[c]");
+
+        // then:
+        assertEquals(expectedMaskedLog, computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AbstractSensitiveDataObfuscatorLayout.OverlapPolicy.class)
+    void shouldMaskSeparateMatchesTheSameWayWithEveryOverlapPolicy(
+            final AbstractSensitiveDataObfuscatorLayout.OverlapPolicy overlapPolicy) {
+        // given:
+        subject.setOverlapPolicy(overlapPolicy);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        addSensitiveFields();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("firstName=[Gustaw] idCardNumber=\"CC123456\" mobilePhone=[500500500] done");
+
+        // then:
+        assertEquals("firstName=[********] idCardNumber=\"********\" mobilePhone=[********] done", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskValuesByShapeWithoutFieldNames() {
+        // given:
+        subject.addValueShape("PESEL");
+        subject.addValueShape("IBAN");
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("transfer from PL61109010140000071219812874 for 44051401359 done");
+
+        // then:
+        assertEquals("transfer from ******** for ******** done", computedMaskedLog);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenValueShapeIsUnknown() {
+        //expect:
+        Assertions.assertThrows(IncorrectConfigurationException.class, () -> subject.addValueShape("PASSPORT"));
+    }
+
+    @Test
+    void shouldFallBackToRegexWhenTemplateIsNotSupportedByLinearTimeMatching() {
+        // given:
+        subject.setLinearTimeMatching(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addCustomPattern("[PROPERTY_NAME]\\s*:\\s*([^,]+)");
+        addSensitiveFields();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("firstName : Gustaw, idCardNumber=[CC123456]");
+
+        // then:
+        assertFalse(subject.isLinearTimeMatchingActive());
+        assertEquals("firstName : ********, idCardNumber=[********]", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskWholeLineWhenMatchBudgetIsExceeded() {
+        // given:
+        subject.setMaxMatchStepsPerCharacter(100);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addCustomPattern(POLYNOMIAL_BACKTRACKING_PATTERN);
+        addSensitiveFields();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("idCardNumber=[CC123456] firstName=" + "a".repeat(40) + "c");
+
+        // then:
+        assertEquals("********", computedMaskedLog);
+        assertEquals("idCardNumber=[********] ok", subject.maskLogMessage("idCardNumber=[CC123456] ok"));
+    }
+
+    @Test
+    void shouldTruncateLineWhenMatchBudgetIsExceeded() {
+        // given:
+        subject.setMaxMatchStepsPerCharacter(100);
+        subject.setBudgetExceededPolicy(AbstractSensitiveDataObfuscatorLayout.BudgetExceededPolicy.TRUNCATE);
+        subject.setMetricsEnabled(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addCustomPattern(POLYNOMIAL_BACKTRACKING_PATTERN);
+        addSensitiveFields();
+        var streamedLog = new StringBuilder();
+
+        // when:
+        subject.doLayout(ILoggingEventFactory.from("idCardNumber=[CC123456] firstName=" + "a".repeat(40) + "c"), streamedLog);
+
+        // then:
+        assertEquals("idCardNumber=[********[TRUNCATED]", streamedLog.toString());
+        assertEquals(1, subject.getMetrics().getMessagesOverBudget());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldFindValuesCrossingChunkBoundaries(final boolean linearTimeMatching) {
+        // given:
+        var unchunkedLayout = new MaskSensitiveDataLayout();
+        subject.setChunkSize(100);
+        subject.setChunkOverlap(40);
+        subject.setLinearTimeMatching(linearTimeMatching);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        unchunkedLayout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+        SENSITIVE_FIELDS.forEach(unchunkedLayout::addFieldName);
+        var log = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            log.append("x".repeat(i % 37)).append("firstName=[Gustaw").append(i).append("] ");
+        }
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log.toString());
+
+        // then:
+        assertEquals(unchunkedLayout.maskLogMessage(log.toString()), computedMaskedLog);
+        assertFalse(computedMaskedLog.contains("Gustaw"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldFindValueLongerThanChunkOverlapCrossingChunkBoundary(final boolean linearTimeMatching) {
+        // given:
+        subject.setChunkSize(100);
+        subject.setChunkOverlap(10);
+        subject.setLinearTimeMatching(linearTimeMatching);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+        var log = "x".repeat(80) + "firstName=[" + "S".repeat(40) + "] done";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals("x".repeat(80) + "firstName=[********] done", computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldLeaveMatchStartingInChunkOverlapToNextWindow(final boolean linearTimeMatching) {
+        // given:
+        var unchunkedLayout = new MaskSensitiveDataLayout();
+        subject.setChunkSize(64);
+        subject.setChunkOverlap(32);
+        subject.setLinearTimeMatching(linearTimeMatching);
+        for (var layout : List.of(subject, unchunkedLayout)) {
+            layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+            layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+            layout.addFieldName("email");
+            layout.addFieldName("phone");
+        }
+        var log = "x".repeat(70) + "email=[a phone=\"12\" was given by the user]";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals("x".repeat(70) + "email=[********]", computedMaskedLog);
+        assertEquals(unchunkedLayout.maskLogMessage(log), computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskWholeValueOfTemplateWithoutClosingDelimiterCutByChunkRegion() {
+        // given:
+        subject.setChunkSize(100);
+        subject.setChunkOverlap(10);
+        subject.addCustomPattern("[PROPERTY_NAME]=(\\S+)");
+        addSensitiveFields();
+        var log = "x".repeat(95) + " firstName=" + "S".repeat(40) + " done";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals("x".repeat(95) + " firstName=******** done", computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldMaskOversizedMessageInParallelTheSameWayAsSequentially(final boolean linearTimeMatching) {
+        // given:
+        var sequentialLayout = new MaskSensitiveDataLayout();
+        subject.setParallelMaskingThreshold(10_000);
+        subject.setParallelism(4);
+        subject.setLinearTimeMatching(linearTimeMatching);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        sequentialLayout.setLinearTimeMatching(linearTimeMatching);
+        sequentialLayout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        sequentialLayout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        addSensitiveFields();
+        SENSITIVE_FIELDS.forEach(sequentialLayout::addFieldName);
+        subject.start();
+        var log = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            log.append("x".repeat(i % 53)).append("firstName=[Gustaw").append(i).append("]\n")
+                    .append("{\"row\":").append(i).append("},")
+                    .append("mobilePhone=\"+48\n").append(i).append("\" ");
+        }
+        log.append("idCardNumber=[").append("CC123456\n".repeat(5_000)).append("] other=[end]");
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log.toString());
+
+        // then:
+        assertEquals(sequentialLayout.maskLogMessage(log.toString()), computedMaskedLog);
+        assertFalse(computedMaskedLog.contains("Gustaw"));
+        subject.stop();
+    }
+
+    @Test
+    void shouldMaskValueShapeCrossingParallelSegmentCut() {
+        // given:
+        var sequentialLayout = new MaskSensitiveDataLayout();
+        subject.setParallelMaskingThreshold(1_000);
+        subject.setParallelism(4);
+        for (var layout : List.of(subject, sequentialLayout)) {
+            layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+            layout.addFieldName("firstName");
+            layout.addValueShape(SensitiveValueShapes.CARD_NUMBER.name());
+        }
+        subject.start();
+        var log = "a".repeat(4_090) + " 4111 1111 1111 1111 " + "b".repeat(36_000) + " firstName=[Gustaw]";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals(sequentialLayout.maskLogMessage(log), computedMaskedLog);
+        assertFalse(computedMaskedLog.contains("4111"));
+        subject.stop();
+    }
+
+    @Test
+    void shouldMaskInParallelWithinMatchBudgetTheSameWayAsSequentially() {
+        // given:
+        var sequentialLayout = new MaskSensitiveDataLayout();
+        subject.setParallelMaskingThreshold(1_000);
+        subject.setParallelism(4);
+        subject.setMaxMatchStepsPerCharacter(4);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        sequentialLayout.setMaxMatchStepsPerCharacter(4);
+        sequentialLayout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+        SENSITIVE_FIELDS.forEach(sequentialLayout::addFieldName);
+        subject.start();
+        var log = "request processed\n".repeat(1_700) + "firstName=[Gustaw]";
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage(log);
+
+        // then:
+        assertEquals(sequentialLayout.maskLogMessage(log), computedMaskedLog);
+        assertTrue(computedMaskedLog.endsWith("request processed\nfirstName=[********]"));
+        subject.stop();
+    }
+
+    @Test
+    void shouldTruncateMessageLongerThanMaxScanLengthWithoutCuttingSensitiveValue() {
+        // given:
+        subject.setMaxScanLength(30);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+        var streamedLog = new StringBuilder();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("firstName=[Gustaw] firstName=[Gustaw] firstName=[Gustaw]");
+        subject.doLayout(ILoggingEventFactory.from("short firstName=[Gustaw]"), streamedLog);
+
+        // then:
+        assertEquals("firstName=[********] [TRUNCATED]", computedMaskedLog);
+        assertEquals("short firstName=[********]", streamedLog.toString());
+    }
+
+    @Test
+    void shouldMaskRemainderOfMessageLongerThanMaxScanLength() {
+        // given:
+        subject.setMaxScanLength(30);
+        subject.setOversizedMessagePolicy(AbstractSensitiveDataObfuscatorLayout.OversizedMessagePolicy.MASK_REMAINDER);
+        subject.setJsonMode(true);
+        addSensitiveFields();
+
+        // when:
+        var computedMaskedLog = subject.maskLogMessage("{\"firstName\":\"Gustaw\"} {\"firstName\":\"Gustaw\"}");
+
+        // then:
+        assertEquals("{\"firstName\":\"********\"} ********", computedMaskedLog);
+    }
+
+    @Test
+    void shouldRegisterMetricsInJmxWhileStarted() throws Exception {
+        // given:
+        var objectName = new ObjectName("io.github.orczykowski.logback.obfuscator:type=MaskingMetrics,name=test");
+        var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        subject.setMetricsEnabled(true);
+        subject.setJmxObjectName(objectName.toString());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        addSensitiveFields();
+
+        // when:
+        subject.start();
+        subject.doLayout(ILoggingEventFactory.from("firstName=[Gustaw]"));
+
+        // then:
+        assertEquals(1L, mBeanServer.getAttribute(objectName, "MessagesWithMatches"));
+        subject.stop();
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
     @ParameterizedTest
     @EmptySource
     void shouldIgnoreEmptyString(String str) {
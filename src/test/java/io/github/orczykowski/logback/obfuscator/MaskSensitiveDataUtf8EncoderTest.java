@@ -0,0 +1,188 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MaskSensitiveDataUtf8EncoderTest {
+    private static final String LOG_PATTERN = "%-5p %m%n";
+    private final LoggerContext context = new LoggerContext();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Zażółć firstName=[Gęślą] jaźń firstName=[Gustaw]",
+            "emoji firstName=[😀] firstName=[a😀b] email=\"😀😀\"",
+            "cjk firstName=[名前] {\"email\":\"メール@例え.jp\"} firstName=[   ]",
+            "firstName=[] firstName=[x] email=\"\" nothing"})
+    void shouldProduceSameBytesAsMaskSensitiveDataLayout(final String log) {
+        //given:
+        var layout = configure(new MaskSensitiveDataLayout());
+        layout.addMask("█");
+        layout.start();
+        var subject = encoder(false, "█");
+        var logEvent = ILoggingEventFactory.from(log);
+
+        //when:
+        var encodedLog = subject.encode(logEvent);
+
+        //then:
+        assertEquals(layout.doLayout(logEvent), new String(encodedLog, StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Zażółć firstName=[Gęślą] jaźń firstName=[Gustaw]",
+            "emoji firstName=[😀] firstName=[a😀b] email=\"😀x😀\"",
+            "cjk firstName=[名前] {\"email\":\"メール@例え.jp\"} firstName=[   ] firstName=[  ]",
+            "firstName=[] firstName=[x] email=\"\" nothing"})
+    void shouldProduceSameBytesAsMaskSensitiveDataAsShortcutLayout(final String log) {
+        //given:
+        var layout = configure(new MaskSensitiveDataAsShortcutLayout());
+        layout.start();
+        var subject = encoder(true, null);
+        var logEvent = ILoggingEventFactory.from(log);
+
+        //when:
+        var encodedLog = subject.encode(logEvent);
+
+        //then:
+        assertEquals(layout.doLayout(logEvent), new String(encodedLog, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldReturnDelegateBytesWhenNothingIsMasked() {
+        //given:
+        var subject = encoder(false, null);
+        var encodedLog = "INFO  firstName is not a field here, email is [x]\n".getBytes(StandardCharsets.UTF_8);
+
+        //when:
+        var maskedLog = subject.maskSensitiveValues(encodedLog);
+
+        //then:
+        assertSame(encodedLog, maskedLog);
+    }
+
+    @Test
+    void shouldNotStartWhenDelegateDoesNotWriteUtf8() {
+        //given:
+        var delegate = delegate();
+        delegate.setCharset(StandardCharsets.UTF_16);
+        var subject = new MaskSensitiveDataUtf8Encoder();
+        subject.setContext(context);
+        subject.setEncoder(delegate);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("firstName");
+
+        //when:
+        subject.start();
+
+        //then:
+        assertFalse(subject.isStarted());
+    }
+
+    @Test
+    void shouldRejectNonAsciiFieldNames() {
+        //given:
+        var subject = new MaskSensitiveDataUtf8Encoder();
+        subject.setContext(context);
+        subject.setEncoder(delegate());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("imię");
+
+        //when:
+        subject.start();
+
+        //then:
+        assertFalse(subject.isStarted());
+    }
+
+    @Test
+    void shouldNotStartWhenJsonModeOrValueShapesAreConfigured() {
+        //given:
+        var jsonModeEncoder = new MaskSensitiveDataUtf8Encoder();
+        jsonModeEncoder.setContext(context);
+        jsonModeEncoder.setEncoder(delegate());
+        jsonModeEncoder.setJsonMode(true);
+        jsonModeEncoder.addFieldName("firstName");
+        var valueShapesEncoder = new MaskSensitiveDataUtf8Encoder();
+        valueShapesEncoder.setContext(context);
+        valueShapesEncoder.setEncoder(delegate());
+        valueShapesEncoder.addValueShape(SensitiveValueShapes.CARD_NUMBER.name());
+
+        //when:
+        jsonModeEncoder.start();
+        valueShapesEncoder.start();
+
+        //then:
+        assertFalse(jsonModeEncoder.isStarted());
+        assertFalse(valueShapesEncoder.isStarted());
+    }
+
+    @Test
+    void shouldMaskNormalizedFieldNamesLikeMaskSensitiveDataLayout() {
+        //given:
+        var layout = configure(new MaskSensitiveDataLayout());
+        layout.setNormalizedFieldNames(true);
+        layout.start();
+        var subject = new MaskSensitiveDataUtf8Encoder();
+        subject.setContext(context);
+        subject.setEncoder(delegate());
+        subject.setNormalizedFieldNames(true);
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("firstName");
+        subject.start();
+        var logEvent = ILoggingEventFactory.from("first_name=[Gęślą] FIRST-NAME=[Gustaw] firstName=[Jan]");
+
+        //when:
+        var encodedLog = subject.encode(logEvent);
+
+        //then:
+        assertEquals(layout.doLayout(logEvent), new String(encodedLog, StandardCharsets.UTF_8));
+        assertFalse(new String(encodedLog, StandardCharsets.UTF_8).contains("Gustaw"));
+    }
+
+    private <T extends AbstractSensitiveDataObfuscatorLayout> T configure(final T layout) {
+        layout.setContext(context);
+        layout.setPattern(LOG_PATTERN);
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        layout.addFieldName("firstName");
+        layout.addFieldName("email");
+        return layout;
+    }
+
+    private MaskSensitiveDataUtf8Encoder encoder(final boolean shortcut, final String mask) {
+        var encoder = new MaskSensitiveDataUtf8Encoder();
+        encoder.setContext(context);
+        encoder.setEncoder(delegate());
+        encoder.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        encoder.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        encoder.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name());
+        encoder.addFieldName("firstName");
+        encoder.addFieldName("email");
+        encoder.setShortcut(shortcut);
+        if (mask != null) {
+            encoder.setMask(mask);
+        }
+        encoder.start();
+        return encoder;
+    }
+
+    private PatternLayoutEncoder delegate() {
+        var delegate = new PatternLayoutEncoder();
+        delegate.setContext(context);
+        delegate.setPattern(LOG_PATTERN);
+        delegate.setCharset(StandardCharsets.UTF_8);
+        delegate.start();
+        return delegate;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaskingResultCacheTest {
+
+    MaskingResultCache subject = new MaskingResultCache(16, 10);
+
+    @Test
+    void shouldReturnCachedResultForEqualMessageRegardlessOfItsType() {
+        //given:
+        subject.put("email=[x]", "email=[*]");
+
+        //expect:
+        assertEquals("email=[*]", subject.get("email=[x]"));
+        assertEquals("email=[*]", subject.get(new StringBuilder("email=[x]")));
+        assertNull(subject.get("email=[y]"));
+        assertEquals(2, subject.hits());
+        assertEquals(1, subject.misses());
+    }
+
+    @Test
+    void shouldCacheOnlyMessagesNotLongerThanLimit() {
+        //expect:
+        assertTrue(subject.isCacheable("0123456789"));
+        assertFalse(subject.isCacheable("0123456789A"));
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.status.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaskingRulesReloaderTest {
+
+    @TempDir
+    Path directory;
+
+    MaskSensitiveDataLayout subject;
+
+    @AfterEach
+    void cleanup() {
+        subject.stop();
+    }
+
+    @Test
+    void shouldLoadRulesFromFileOnStart() throws IOException {
+        //given:
+        var rulesFile = rulesFile("""
+                # initial rules
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                fieldName=firstName""");
+
+        //when:
+        subject = layout(rulesFile, null);
+
+        //then:
+        assertEquals("firstName=[********] email=[gustaw@github.io]", mask("firstName=[Gustaw] email=[gustaw@github.io]"));
+    }
+
+    @Test
+    void shouldSwapRulesWhenFileChanges() throws IOException {
+        //given:
+        var rulesFile = rulesFile("""
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                fieldName=firstName""");
+        subject = layout(rulesFile, null);
+        Files.writeString(rulesFile, """
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                customPattern=[PROPERTY_NAME]->'([^']+)'
+                fieldName=email""");
+        Files.setLastModifiedTime(rulesFile, FileTime.fromMillis(Files.getLastModifiedTime(rulesFile).toMillis() + 1000));
+
+        //when:
+        subject.rulesReloader().run();
+
+        //then:
+        assertEquals("firstName=[Gustaw] email=[********] email->'********'",
+                mask("firstName=[Gustaw] email=[gustaw@github.io] email->'gustaw@github.io'"));
+        assertEquals(2, subject.rulesReloader().getReloads());
+    }
+
+    @Test
+    void shouldKeepPreviousRulesWhenFileIsInvalid() throws IOException {
+        //given:
+        var rulesFile = rulesFile("""
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                fieldName=firstName""");
+        subject = layout(rulesFile, null);
+        Files.writeString(rulesFile, """
+                patternName=UNKNOWN
+                fieldName=email""");
+
+        //when:
+        subject.rulesReloader().reloadFromFile();
+
+        //then:
+        assertEquals("firstName=[********] email=[gustaw@github.io]", mask("firstName=[Gustaw] email=[gustaw@github.io]"));
+        assertEquals(1, subject.rulesReloader().getFailedReloads());
+    }
+
+    @Test
+    void shouldKeepPreviousRulesWhenFileIsEmpty() throws IOException {
+        //given:
+        var rulesFile = rulesFile("""
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                fieldName=firstName""");
+        subject = layout(rulesFile, null);
+        Files.writeString(rulesFile, "# truncated\n");
+
+        //when:
+        subject.rulesReloader().reloadFromFile();
+
+        //then:
+        assertEquals("firstName=[********]", mask("firstName=[Gustaw]"));
+        assertEquals(1, subject.rulesReloader().getFailedReloads());
+        assertTrue(subject.getContext().getStatusManager().getCopyOfStatusList().stream()
+                .anyMatch(status -> status.getLevel() == Status.ERROR && status.getMessage().startsWith("Failed to reload masking rules")));
+    }
+
+    @Test
+    void shouldReloadFileThatFailedToLoadOnNextScan() throws IOException {
+        //given:
+        var rulesFile = rulesFile("""
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                fieldName=firstName""");
+        subject = layout(rulesFile, null);
+        var modified = FileTime.fromMillis(Files.getLastModifiedTime(rulesFile).toMillis() + 1000);
+        Files.writeString(rulesFile, "patternName=EQUAL_AND_SQUARE_BRACKETS");
+        Files.setLastModifiedTime(rulesFile, modified);
+        subject.rulesReloader().run();
+        Files.writeString(rulesFile, """
+                patternName=EQUAL_AND_SQUARE_BRACKETS
+                fieldName=email""");
+        Files.setLastModifiedTime(rulesFile, modified);
+
+        //when:
+        subject.rulesReloader().run();
+
+        //then:
+        assertEquals("firstName=[Gustaw] email=[********]", mask("firstName=[Gustaw] email=[gustaw@github.io]"));
+        assertEquals(1, subject.rulesReloader().getFailedReloads());
+    }
+
+    @Test
+    void shouldRejectEmptyRulesAndBlankFieldNamesThroughJmx() {
+        //given:
+        subject = layout(null, null);
+        var reloader = new MaskingRulesReloader(subject, null);
+        reloader.replaceRules(List.of("EQUAL_AND_SQUARE_BRACKETS"), List.of(), List.of("firstName"));
+
+        //when:
+        assertThrows(IllegalArgumentException.class, () -> reloader.replaceRules(List.of(), List.of(), List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> reloader.replaceRules(List.of("EQUAL_AND_SQUARE_BRACKETS"), List.of(), List.of("email", " ")));
+
+        //then:
+        assertEquals("firstName=[********] email=[gustaw@github.io]", mask("firstName=[Gustaw] email=[gustaw@github.io]"));
+        assertEquals(2, reloader.getFailedReloads());
+    }
+
+    @Test
+    void shouldReplaceRulesThroughJmx() throws Exception {
+        //given:
+        var objectName = "io.github.orczykowski.logback.obfuscator:type=MaskingRules,name=test";
+        subject = layout(null, objectName);
+        var server = ManagementFactory.getPlatformMBeanServer();
+
+        //when:
+        server.invoke(new ObjectName(objectName), "replaceRules",
+                new Object[]{new String[]{"EQUAL_AND_BRACKETS"}, new String[]{}, new String[]{"mobilePhone"}},
+                new String[]{String[].class.getName(), String[].class.getName(), String[].class.getName()});
+
+        //then:
+        assertEquals("mobilePhone=(********)", mask("mobilePhone=(+48123123123)"));
+        assertEquals(List.of("mobilePhone"), List.of((String[]) server.getAttribute(new ObjectName(objectName), "FieldNames")));
+        assertThrows(Exception.class, () -> server.invoke(new ObjectName(objectName), "replaceRules",
+                new Object[]{new String[]{"UNKNOWN"}, new String[]{}, new String[]{"email"}},
+                new String[]{String[].class.getName(), String[].class.getName(), String[].class.getName()}));
+        assertEquals("mobilePhone=(********)", mask("mobilePhone=(+48123123123)"));
+    }
+
+    @Test
+    void shouldNotInterruptMaskingWhileRulesAreSwapped() throws Exception {
+        //given:
+        subject = layout(null, null);
+        var reloader = new MaskingRulesReloader(subject, null);
+        var swapping = new AtomicBoolean(true);
+        var failure = new AtomicReference<Throwable>();
+        var swapper = new Thread(() -> {
+            try {
+                while (swapping.get()) {
+                    reloader.replaceRules(List.of("EQUAL_AND_SQUARE_BRACKETS"), List.of(), List.of("firstName"));
+                    reloader.replaceRules(List.of("EQUAL_AND_SQUARE_BRACKETS"), List.of(), List.of("firstName", "email"));
+                }
+            } catch (final Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        swapper.start();
+
+        //when:
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(mask("firstName=[Gustaw%d]".formatted(i)).matches("firstName=\\[(\\*{8}|Gustaw\\d+)]"));
+        }
+        swapping.set(false);
+        swapper.join();
+
+        //then:
+        assertNull(failure.get());
+        assertEquals("firstName=[********]", mask("firstName=[Gustaw]"));
+    }
+
+    private Path rulesFile(final String content) throws IOException {
+        return Files.writeString(directory.resolve("masking-rules.properties"), content);
+    }
+
+    private MaskSensitiveDataLayout layout(final Path rulesFile, final String rulesJmxObjectName) {
+        var layout = new MaskSensitiveDataLayout();
+        layout.setPattern("%m");
+        layout.setContext(new LoggerContext());
+        if (rulesFile != null) {
+            layout.setRulesFile(rulesFile.toString());
+        }
+        layout.setRulesJmxObjectName(rulesJmxObjectName);
+        layout.start();
+        return layout;
+    }
+
+    private String mask(final String log) {
+        return subject.doLayout(ILoggingEventFactory.from(log));
+    }
+}
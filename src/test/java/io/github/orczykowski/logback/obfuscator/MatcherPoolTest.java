@@ -0,0 +1,112 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatcherPoolTest {
+    private static final Pattern PATTERN = Pattern.compile("email=\\[([^]]+)]");
+
+    MatcherPool subject = new MatcherPool(PATTERN, 4);
+
+    @Test
+    void shouldReuseReleasedMatcherForNewInput() {
+        //given:
+        var first = subject.acquire("email=[a]");
+        subject.release(first);
+
+        //when:
+        var second = subject.acquire("email=[b]");
+
+        //then:
+        assertSame(first, second);
+        assertTrue(second.find());
+        assertEquals("b", second.group(1));
+    }
+
+    @Test
+    void shouldNotKeepInputOfReleasedMatcher() {
+        //given:
+        var matcher = subject.acquire("email=[a]");
+
+        //when:
+        subject.release(matcher);
+
+        //then:
+        assertFalse(matcher.find());
+    }
+
+    @Test
+    void shouldCreateNewMatcherWhenPooledOneIsInUse() {
+        //given:
+        var first = subject.acquire("email=[a]");
+
+        //when:
+        var second = subject.acquire("email=[b]");
+
+        //then:
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void shouldKeepBoundedNumberOfMatchers() {
+        //given:
+        var matchers = new ArrayList<Matcher>();
+        for (int i = 0; i < 100; i++) {
+            matchers.add(subject.acquire("email=[a]"));
+        }
+
+        //when:
+        matchers.forEach(subject::release);
+
+        //then:
+        assertEquals(4, subject.pooled());
+    }
+
+    @Test
+    void shouldShareMatchersBetweenThreads() throws InterruptedException {
+        //given:
+        var matcher = new AtomicReference<Matcher>();
+        var thread = new Thread(() -> matcher.set(subject.acquire("email=[a]")));
+        thread.start();
+        thread.join();
+        subject.release(matcher.get());
+
+        //when:
+        var pooled = subject.pooled();
+
+        //then:
+        assertEquals(1, pooled);
+    }
+
+    @Test
+    void shouldReturnMatcherToPoolWhenSearchIsClosed() {
+        //given:
+        var sensitiveDataMatcher = new SensitiveDataPatternFactory().create(List.of("email"),
+                List.of(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.getPatternTemplate()), false);
+
+        //when:
+        try (var search = sensitiveDataMatcher.search("email=[a] email=[b]")) {
+            assertTrue(search.find(0, 19));
+            assertEquals(0, sensitiveDataMatcher.pooledMatchers());
+        }
+
+        //then:
+        assertEquals(1, sensitiveDataMatcher.pooledMatchers());
+        try (var search = sensitiveDataMatcher.search("email=[c]")) {
+            assertTrue(search.find(0, 9));
+            assertEquals(7, search.valueStart());
+        }
+        assertEquals(1, sensitiveDataMatcher.pooledMatchers());
+    }
+}
@@ -0,0 +1,260 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.pattern.PostCompileProcessor;
+import ch.qos.logback.core.status.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensitiveDataConvertersTest {
+
+    @Test
+    void shouldMaskOnlyMessageWhenMaskedMessageConverterIsUsed() {
+        //given:
+        var subject = layout("firstName=[%level] %maskedMsg");
+        var logEvent = ILoggingEventFactory.from("firstName=[Gustaw]");
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals("firstName=[INFO] firstName=[********]", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskMdcValuesWhenMaskedMdcConverterIsUsed() {
+        //given:
+        var subject = layout("%maskedMdc{request} %maskedX - %maskedMessage");
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("email=[test@github.io]");
+        logEvent.setMDCPropertyMap(Map.of("request", "email=[test@github.io]"));
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals("email=[********] request=email=[********] - email=[********]", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskMdcValuesOfSensitiveKeysWhenMaskedMdcConverterIsUsed() {
+        //given:
+        var subject = layout("%maskedX{email} %maskedX");
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("user logged in");
+        logEvent.setMDCPropertyMap(Map.of("email", "john@x.com"));
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals("******** email=********", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskKeyValuePairsWhenMaskedKeyValuePairConverterIsUsed() {
+        //given:
+        var subject = layout("%maskedKvp{NONE} %msg");
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("user logged in");
+        logEvent.addKeyValuePair(new KeyValuePair("user", "email=[test@github.io]"));
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals("user=email=[********] user logged in", computedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskMessageInsideCompositeConverter() {
+        //given:
+        var subject = layout("%replace(%maskedMsg){'Gustaw', 'G'} email=[%logger{0}]");
+        var logEvent = ILoggingEventFactory.from("Gustaw email=[test@github.io]");
+
+        //when:
+        var computedMaskedLog = new StringBuilder();
+        subject.doLayout(logEvent, computedMaskedLog);
+
+        //then:
+        assertEquals("G email=[********] email=[ILoggingEventFactory]", computedMaskedLog.toString());
+    }
+
+    @Test
+    void shouldMaskStructuredDataBySensitiveKeysWhenStructuredMaskingIsEnabled() {
+        //given:
+        var subject = layout("%X{email} %X{request} %kvp{NONE} %msg");
+        subject.setStructuredMasking(true);
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("user logged in");
+        logEvent.setMDCPropertyMap(Map.of("email", "test@github.io", "request", "42"));
+        logEvent.addKeyValuePair(new KeyValuePair("firstName", "Gustaw"));
+        logEvent.addKeyValuePair(new KeyValuePair("user", "email=[test@github.io]"));
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals("******** 42 firstName=******** user=email=[********] user logged in", computedMaskedLog);
+    }
+
+    @Test
+    void shouldNotScanStructuredDataWhenStructuredMaskingIsEnabled() {
+        //given:
+        var subject = layout("%maskedKvp{NONE} %maskedX{request} %maskedMsg");
+        subject.setStructuredMasking(true);
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("email=[test@github.io]");
+        logEvent.setMDCPropertyMap(Map.of("request", "email=[test@github.io]"));
+        logEvent.addKeyValuePair(new KeyValuePair("email", "test@github.io"));
+
+        //when:
+        var computedMaskedLog = new StringBuilder();
+        subject.doLayout(logEvent, computedMaskedLog);
+
+        //then:
+        assertEquals("email=******** email=[test@github.io] email=[********]", computedMaskedLog.toString());
+    }
+
+    @Test
+    void shouldMaskStructuredValuesWithShortcutMasker() {
+        //given:
+        var subject = new MaskSensitiveDataAsShortcutLayout();
+        subject.setContext(new LoggerContext());
+        subject.setPattern("%X{email}");
+        subject.setJsonMode(true);
+        subject.addFieldName("email");
+        subject.setStructuredMasking(true);
+        subject.start();
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("user logged in");
+        logEvent.setMDCPropertyMap(Map.of("email", "test@github.io"));
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertEquals("t-14-o", computedMaskedLog);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "{full}", "{short}", "{3}", "{full, org.junit}"})
+    void shouldMaskOnlyExceptionMessagesWhenMaskedThrowableConverterIsUsed(final String options) {
+        //given:
+        var subject = layout("%maskedMsg%n%maskedEx" + options);
+        var plainLayout = new PatternLayout();
+        plainLayout.setContext(new LoggerContext());
+        plainLayout.setPattern("%msg%n%ex" + options);
+        plainLayout.start();
+        var cause = new IllegalArgumentException("firstName=[Gustaw] is invalid");
+        var exception = new IllegalStateException("email=[test@github.io] already exists", cause);
+        exception.addSuppressed(new IllegalStateException("firstName=[Gustaw]"));
+        var logEvent = new LoggingEvent("FQCN", new LoggerContext().getLogger("test"), Level.ERROR, "email=[test@github.io]",
+                exception, null);
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+        var repeatedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        var expectedMaskedLog = plainLayout.doLayout(logEvent)
+                .replaceFirst("email=\\[test@github.io]", "email=[********]")
+                .replace("[test@github.io] already", "[********] already")
+                .replace("Gustaw", "********");
+        assertEquals(expectedMaskedLog, computedMaskedLog);
+        assertEquals(expectedMaskedLog, repeatedMaskedLog);
+    }
+
+    @Test
+    void shouldMaskWholeLineWhenPatternMixesMaskedAndUnmaskedConverters() {
+        //given:
+        var context = new LoggerContext();
+        var subject = new MaskSensitiveDataLayout();
+        subject.setContext(context);
+        subject.setPattern("%maskedX{user} %msg%n");
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("email");
+        subject.start();
+        var logEvent = (LoggingEvent) ILoggingEventFactory.from("email=[secret@x.com]");
+        logEvent.setMDCPropertyMap(Map.of("user", "email=[test@github.io]"));
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+        var streamedMaskedLog = new StringBuilder();
+        subject.doLayout(logEvent, streamedMaskedLog);
+
+        //then:
+        var expectedMaskedLog = "email=[********] email=[********]" + CoreConstants.LINE_SEPARATOR;
+        assertEquals(expectedMaskedLog, computedMaskedLog);
+        assertEquals(expectedMaskedLog, streamedMaskedLog.toString());
+        assertTrue(context.getStatusManager().getCopyOfStatusList().stream()
+                .anyMatch(status -> status.getLevel() == Status.WARN && status.getMessage().contains("[MessageConverter]")));
+    }
+
+    @Test
+    void shouldMaskExceptionMessagesWhenMaskedMessageConverterIsUsedWithoutExceptionConverter() {
+        //given:
+        var subject = layout("firstName=[%level] %maskedMsg%n");
+        var exception = new IllegalStateException("email=[test@github.io] already exists");
+        var logEvent = new LoggingEvent("FQCN", new LoggerContext().getLogger("test"), Level.ERROR, "email=[test@github.io]",
+                exception, null);
+
+        //when:
+        var computedMaskedLog = subject.doLayout(logEvent);
+
+        //then:
+        assertTrue(computedMaskedLog.startsWith("firstName=[ERROR] email=[********]"));
+        assertTrue(computedMaskedLog.contains("java.lang.IllegalStateException: email=[********] already exists"));
+        assertFalse(computedMaskedLog.contains("test@github.io"));
+    }
+
+    @Test
+    void shouldRunOwnPostCompileProcessorOncePerStartAfterRestart() {
+        //given:
+        var processed = new AtomicInteger();
+        var installedProcessors = new ArrayList<PostCompileProcessor<ILoggingEvent>>();
+        var subject = new MaskSensitiveDataLayout() {
+            @Override
+            public void start() {
+                super.start();
+                installedProcessors.add(postCompileProcessor);
+            }
+        };
+        subject.setContext(new LoggerContext());
+        subject.setPattern("%maskedMsg");
+        subject.setPostCompileProcessor((context, head) -> processed.incrementAndGet());
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        subject.addFieldName("email");
+        subject.start();
+        subject.stop();
+
+        //when:
+        subject.start();
+
+        //then:
+        assertEquals(2, processed.get());
+        assertSame(installedProcessors.get(0), installedProcessors.get(1));
+        assertEquals("email=[********]", subject.doLayout(ILoggingEventFactory.from("email=[test@github.io]")));
+    }
+
+    private static MaskSensitiveDataLayout layout(final String pattern) {
+        var layout = new MaskSensitiveDataLayout();
+        layout.setContext(new LoggerContext());
+        layout.setPattern(pattern);
+        layout.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        layout.addFieldName("firstName");
+        layout.addFieldName("email");
+        layout.start();
+        return layout;
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SensitiveDataPatternRegistryTest {
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void shouldShareOneCompiledMatcherBetweenLayouts() {
+        //given:
+        var registry = registry("pii");
+        var firstLayout = layout("pii");
+        var secondLayout = layout("pii");
+
+        //when:
+        var firstMaskedLog = firstLayout.doLayout(ILoggingEventFactory.from("firstName=[Gustaw] email=\"gustaw@github.io\""));
+        var secondMaskedLog = secondLayout.doLayout(ILoggingEventFactory.from("idCardNumber=[CC123456]"));
+
+        //then:
+        assertEquals("firstName=[********] email=\"********\"", firstMaskedLog);
+        assertEquals("idCardNumber=[********]", secondMaskedLog);
+        assertSame(registry.matcher(false, false), registry.matcher(false, false));
+    }
+
+    @Test
+    void shouldDeduplicatePatternsAndFieldNames() {
+        //given:
+        var registry = registry("pii");
+
+        //when:
+        var patterns = registry.patterns();
+        var fieldNames = registry.fieldNames();
+
+        //then:
+        assertEquals(2, patterns.size());
+        assertEquals(3, fieldNames.size());
+    }
+
+    @Test
+    void shouldCombineRegistryWithPatternsAndFieldNamesOfLayout() {
+        //given:
+        registry("pii");
+        var subject = layout("pii");
+        subject.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_BRACKETS.name());
+        subject.addFieldName("mobilePhone");
+
+        //when:
+        var maskedLog = subject.doLayout(ILoggingEventFactory.from("firstName=(Gustaw) mobilePhone=[+48123123123]"));
+
+        //then:
+        assertEquals("firstName=(********) mobilePhone=[********]", maskedLog);
+    }
+
+    @Test
+    void shouldRejectChangesOnceRegistryIsDefined() {
+        //given:
+        var registry = registry("pii");
+
+        //expect:
+        assertThrows(IncorrectConfigurationException.class, () -> registry.addFieldName("mobilePhone"));
+        assertThrows(IncorrectConfigurationException.class,
+                () -> registry.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.JSON.name()));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRegistryIsUnknown() {
+        //given:
+        var subject = new MaskSensitiveDataLayout();
+        subject.setContext(context);
+
+        //expect:
+        assertThrows(IncorrectConfigurationException.class, () -> subject.setPatternRegistry("unknown"));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRegistryPatternIsInvalid() {
+        //given:
+        var registry = new SensitiveDataPatternRegistry();
+
+        //expect:
+        assertThrows(IncorrectConfigurationException.class, () -> registry.addCustomPattern("no marker here"));
+        assertThrows(IncorrectConfigurationException.class, () -> registry.addPatternName("UNKNOWN"));
+    }
+
+    @Test
+    void shouldReferenceRegistryDefinedInConfiguration() throws JoranException {
+        //given:
+        var configuration = """
+                <configuration>
+                    <define name="pii" class="io.github.orczykowski.logback.obfuscator.SensitiveDataPatternRegistry">
+                        <name>pii</name>
+                        <patternName>EQUAL_AND_SQUARE_BRACKETS</patternName>
+                        <fieldName>firstName</fieldName>
+                    </define>
+                    <appender name="list" class="ch.qos.logback.core.read.ListAppender"/>
+                    <appender name="async" class="io.github.orczykowski.logback.obfuscator.AsyncMaskingAppender">
+                        <layout class="io.github.orczykowski.logback.obfuscator.MaskSensitiveDataLayout">
+                            <pattern>%m</pattern>
+                            <patternRegistry>${pii}</patternRegistry>
+                        </layout>
+                        <appender-ref ref="list"/>
+                    </appender>
+                    <root level="INFO">
+                        <appender-ref ref="async"/>
+                    </root>
+                </configuration>""";
+        var configurator = new JoranConfigurator();
+        configurator.setContext(context);
+
+        //when:
+        configurator.doConfigure(new ByteArrayInputStream(configuration.getBytes(StandardCharsets.UTF_8)));
+        var asyncAppender = (AsyncMaskingAppender) context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("async");
+        var listAppender = (ListAppender<ILoggingEvent>) asyncAppender.getAppender("list");
+        var logEvent = new LoggingEvent("FQCN", context.getLogger(SensitiveDataPatternRegistryTest.class), Level.INFO,
+                "firstName=[Gustaw]", null, null);
+        logEvent.setMDCPropertyMap(Map.of());
+        asyncAppender.doAppend(logEvent);
+        asyncAppender.stop();
+
+        //then:
+        assertEquals("firstName=[********]", listAppender.list.get(0).getFormattedMessage());
+    }
+
+    private SensitiveDataPatternRegistry registry(final String name) {
+        var registry = new SensitiveDataPatternRegistry();
+        registry.setContext(context);
+        registry.setName(name);
+        registry.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        registry.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_DOUBLE_QUOTES.name());
+        registry.addPatternName(SensitiveDataPatternFactory.SensitiveValuePatterns.EQUAL_AND_SQUARE_BRACKETS.name());
+        registry.addFieldName("firstName");
+        registry.addFieldName("email");
+        registry.addFieldName("idCardNumber");
+        registry.addFieldName("email");
+        registry.getPropertyValue();
+        return registry;
+    }
+
+    private MaskSensitiveDataLayout layout(final String registryName) {
+        var layout = new MaskSensitiveDataLayout();
+        layout.setPattern("%m");
+        layout.setContext(context);
+        layout.start();
+        layout.setPatternRegistry(registryName);
+        return layout;
+    }
+}
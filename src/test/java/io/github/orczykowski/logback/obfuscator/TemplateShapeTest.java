@@ -0,0 +1,51 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateShapeTest {
+
+    @ParameterizedTest
+    @EnumSource(SensitiveDataPatternFactory.SensitiveValuePatterns.class)
+    void shouldRecognizeAllPredefinedPatterns(final SensitiveDataPatternFactory.SensitiveValuePatterns pattern) {
+        //expect:
+        assertNotNull(TemplateShape.of(pattern.getPatternTemplate()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "[PROPERTY_NAME]=((?:a|aa)+)b",
+            "[PROPERTY_NAME]\\s*=\\s*([^;]+);",
+            "[PROPERTY_NAME]=([^a-z]+);",
+            "[PROPERTY_NAME]=([^;]+)",
+            "[PROPERTY_NAME]=([^;]+);.*",
+            "[PROPERTY_NAME]=([^,]+);"})
+    void shouldNotRecognizeTemplatesOutsideOfSupportedShape(final String template) {
+        //expect:
+        assertNull(TemplateShape.of(template));
+    }
+
+    @Test
+    void shouldMatchValueBetweenLiterals() {
+        //given:
+        var subject = TemplateShape.of("<[PROPERTY_NAME]>\\{([^}]+)\\}");
+        var input = "x <email>{test@github.io} <email>{}";
+
+        //expect:
+        assertTrue(subject.matchesPrefix(input, 2));
+        var valueStart = subject.valueStart(input, 8, input.length());
+        assertEquals(10, valueStart);
+        var valueEnd = subject.valueEnd(input, valueStart, input.length());
+        assertEquals(24, valueEnd);
+        assertTrue(subject.isValue(input, valueStart, valueEnd, input.length()));
+        assertFalse(subject.isValue(input, 34, subject.valueEnd(input, 34, input.length()), input.length()));
+    }
+}
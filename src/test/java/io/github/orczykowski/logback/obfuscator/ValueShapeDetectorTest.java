@@ -0,0 +1,115 @@
+package io.github.orczykowski.logback.obfuscator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ValueShapeDetectorTest {
+    private static final AbstractSensitiveDataObfuscatorLayout.SensitiveValueMasker MASKER =
+            (target, logMessage, valueStart, valueEnd) -> target.append("***");
+
+    ValueShapeDetector subject = new ValueShapeDetector(EnumSet.allOf(SensitiveValueShapes.class), null);
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "4111111111111111|CARD_NUMBER",
+            "4111 1111 1111 1111|CARD_NUMBER",
+            "5500-0000-0000-0004|CARD_NUMBER",
+            "378282246310005|CARD_NUMBER",
+            "PL61109010140000071219812874|IBAN",
+            "PL61 1090 1014 0000 0712 1981 2874|IBAN",
+            "DE89370400440532013000|IBAN",
+            "GB82WEST12345698765432|IBAN",
+            "44051401359|PESEL",
+            "02270803624|PESEL",
+            "+48123123123|PHONE",
+            "+48 123 123 123|PHONE",
+            "+1-202-555-0143|PHONE",
+            "gustaw@github.io|EMAIL",
+            "first.last+tag@mail.example.com|EMAIL"})
+    void shouldMaskValueOfKnownShape(final String value, final SensitiveValueShapes shape) {
+        //given:
+        var onlyThisShape = new ValueShapeDetector(Set.of(shape), null);
+        var input = "value: %s.".formatted(value);
+
+        //expect:
+        assertEquals("value: ***.", mask(subject, input));
+        assertEquals("value: ***.", mask(onlyThisShape, input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "4111111111111112",
+            "1697040000000",
+            "4111 1111-1111 1111",
+            "41111111111111111111",
+            "x4111111111111111",
+            "PL61109010140000071219812875",
+            "pl61109010140000071219812874",
+            "44051401358",
+            "44131401354",
+            "440514013599",
+            "+0123456789",
+            "+48 123",
+            "123123123",
+            "user@localhost",
+            "a@b.c",
+            "@github.io",
+            "gustaw@github.i0",
+            "order 42 took 120 ms"})
+    void shouldNotMaskValueWithWrongChecksumOrShape(final String value) {
+        //given:
+        var input = "value: %s.".formatted(value);
+
+        //expect:
+        assertEquals(input, mask(subject, input));
+    }
+
+    @Test
+    void shouldMaskEveryValueInMessage() {
+        //given:
+        var input = "paid with 4111 1111 1111 1111 from PL61 1090 1014 0000 0712 1981 2874, pesel 44051401359, "
+                + "call +48 123 123 123 or write to gustaw@github.io. order 4111111111111112 took 1697040000000 ms";
+
+        //when:
+        var masked = mask(subject, input);
+
+        //then:
+        assertEquals("paid with *** from ***, pesel ***, call *** or write to ***. order 4111111111111112 took 1697040000000 ms",
+                masked);
+    }
+
+    @Test
+    void shouldKeepIbanWithoutFollowingUpperCaseGroup() {
+        //given:
+        var input = "iban PL61 1090 1014 0000 0712 1981 2874 ABC";
+
+        //expect:
+        assertEquals("iban *** ABC", mask(subject, input));
+    }
+
+    @Test
+    void shouldMaskOnlyGivenRange() {
+        //given:
+        var input = "4111111111111111 4111111111111111 4111111111111111";
+
+        //when:
+        var target = new StringBuilder();
+        subject.mask(input, 16, 34, MASKER, target);
+
+        //then:
+        assertEquals(" *** ", target.toString());
+    }
+
+    private static String mask(final ValueShapeDetector detector, final String input) {
+        var target = new StringBuilder();
+        detector.mask(input, 0, input.length(), MASKER, target);
+        return target.toString();
+    }
+}